@@ -0,0 +1,186 @@
+package im.toss.http.parser.micrometer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import im.toss.http.parser.HttpAuthCredentials;
+import im.toss.http.parser.ParseError;
+import im.toss.http.parser.ParseMetrics;
+import im.toss.http.parser.ParseResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records parses in a Micrometer {@link MeterRegistry}.
+ *
+ * <ul>
+ * <li>{@value #PARSE_TIMER}: a timer of parses, tagged with the {@code scheme} and the
+ * {@code result}, which is either {@code success} or {@code failure}</li>
+ * <li>{@value #ERROR_COUNTER}: a counter of parsing errors, tagged with the {@code kind} of the
+ * error and the {@code result}, which is {@code failure} for the error which made a parse fail and
+ * {@code warning} for an error tolerated in lenient mode</li>
+ * <li>{@value #LENGTH_SUMMARY}: a histogram of the lengths of the credentials</li>
+ * </ul>
+ *
+ * <p>The scheme comes from the request, so only the known schemes are used as tags, matched
+ * case-insensitively; any other scheme is tagged as {@code other}, and empty credentials as
+ * {@code none}. Every meter is registered up front, so recording a parse does not look up the
+ * registry.
+ *
+ * <pre>{@code
+ * HttpAuthCredentials.setParseMetrics(new MicrometerParseMetrics(registry));
+ * }</pre>
+ */
+public final class MicrometerParseMetrics implements ParseMetrics {
+
+    public static final String PARSE_TIMER = "http.auth.parse";
+    public static final String ERROR_COUNTER = "http.auth.parse.errors";
+    public static final String LENGTH_SUMMARY = "http.auth.credentials.length";
+
+    /**
+     * The schemes in the IANA HTTP Authentication Scheme Registry, and AWS Signature Version 4.
+     */
+    public static final List<String> DEFAULT_SCHEMES = Arrays.asList(
+            "Basic", "Bearer", "Digest", "HOBA", "Mutual", "Negotiate", "OAuth", "SCRAM-SHA-1",
+            "SCRAM-SHA-256", "vapid", "AWS4-HMAC-SHA256");
+
+    private static final String OTHER = "other";
+    private static final String NONE = "none";
+
+    private static final ParseError.Kind[] KINDS = ParseError.Kind.values();
+
+    private final String[] schemes;
+
+    // Indexed by the index of the scheme, then by whether the parse failed
+    private final Timer[] timers;
+
+    // Indexed by the kind of the error, then by whether the error made the parse fail
+    private final Counter[] errorCounters;
+
+    private final DistributionSummary lengthSummary;
+
+    public MicrometerParseMetrics(MeterRegistry registry) {
+        this(registry, DEFAULT_SCHEMES);
+    }
+
+    /**
+     * Creates metrics which tag parses with the given schemes.
+     *
+     * @param registry  the registry, not null
+     * @param schemes  the schemes used as tags as they are given, not null
+     */
+    public MicrometerParseMetrics(MeterRegistry registry, Collection<String> schemes) {
+        Objects.requireNonNull(registry, "registry must not be null");
+
+        List<String> tags = new ArrayList<>(new LinkedHashSet<>(schemes));
+        tags.add(OTHER);
+        tags.add(NONE);
+        this.schemes = tags.toArray(new String[0]);
+
+        this.timers = new Timer[this.schemes.length * 2];
+        for (int i = 0; i < this.schemes.length; i++) {
+            timers[i * 2] = timer(registry, this.schemes[i], "success");
+            timers[i * 2 + 1] = timer(registry, this.schemes[i], "failure");
+        }
+
+        this.errorCounters = new Counter[KINDS.length * 2];
+        for (ParseError.Kind kind : KINDS) {
+            errorCounters[kind.ordinal() * 2] = errorCounter(registry, kind, "warning");
+            errorCounters[kind.ordinal() * 2 + 1] = errorCounter(registry, kind, "failure");
+        }
+
+        this.lengthSummary = DistributionSummary.builder(LENGTH_SUMMARY)
+                                                .description("The length of credentials parsed")
+                                                .baseUnit("bytes")
+                                                .sla(64, 128, 256, 512, 1024, 2048, 4096, 8192)
+                                                .register(registry);
+    }
+
+    private static Timer timer(MeterRegistry registry, String scheme, String result) {
+        return Timer.builder(PARSE_TIMER)
+                    .description("The time taken to parse credentials")
+                    .tag("scheme", scheme)
+                    .tag("result", result)
+                    .register(registry);
+    }
+
+    private static Counter errorCounter(MeterRegistry registry, ParseError.Kind kind,
+                                        String result) {
+        return Counter.builder(ERROR_COUNTER)
+                      .description("The parsing errors of credentials")
+                      .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                      .tag("result", result)
+                      .register(registry);
+    }
+
+    /**
+     * Sets new metrics on the given registry as the metrics of {@link HttpAuthCredentials}.
+     *
+     * @param registry  the registry, not null
+     * @return the metrics, not null
+     */
+    public static MicrometerParseMetrics bindTo(MeterRegistry registry) {
+        MicrometerParseMetrics metrics = new MicrometerParseMetrics(registry);
+        HttpAuthCredentials.setParseMetrics(metrics);
+        return metrics;
+    }
+
+    @Override
+    public void onParse(CharSequence credentials, ParseResult result, long nanos) {
+        boolean failed = !result.isSuccess();
+        timers[schemeIndex(credentials) * 2 + (failed ? 1 : 0)].record(nanos, TimeUnit.NANOSECONDS);
+        lengthSummary.record(credentials.length());
+
+        if (failed) {
+            errorCounters[result.getError().getKind().ordinal() * 2 + 1].increment();
+        }
+        for (ParseError warning : result.getWarnings()) {
+            errorCounters[warning.getKind().ordinal() * 2].increment();
+        }
+    }
+
+    private int schemeIndex(CharSequence credentials) {
+        // The scheme ends at the first whitespace, as the parser splits it.
+        int end = 0;
+        while (end < credentials.length() && !isWhitespace(credentials.charAt(end))) {
+            end++;
+        }
+        if (end == 0) {
+            return schemes.length - 1;
+        }
+        // The last two are "other" and "none".
+        for (int i = 0; i < schemes.length - 2; i++) {
+            if (equalsIgnoreCase(schemes[i], credentials, end)) {
+                return i;
+            }
+        }
+        return schemes.length - 2;
+    }
+
+    private static boolean isWhitespace(char ch) {
+        // The characters matched by \s in java.util.regex
+        return ch == ' ' || (ch >= '\t' && ch <= '\r');
+    }
+
+    private static boolean equalsIgnoreCase(String scheme, CharSequence credentials, int end) {
+        if (scheme.length() != end) {
+            return false;
+        }
+        for (int i = 0; i < end; i++) {
+            char a = scheme.charAt(i);
+            char b = credentials.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
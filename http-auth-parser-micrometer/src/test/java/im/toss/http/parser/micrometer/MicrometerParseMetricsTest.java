@@ -0,0 +1,72 @@
+package im.toss.http.parser.micrometer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import im.toss.http.parser.HttpAuthCredentials;
+import im.toss.http.parser.ParseMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class MicrometerParseMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        MicrometerParseMetrics.bindTo(registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        HttpAuthCredentials.setParseMetrics(ParseMetrics.NONE);
+    }
+
+    @Test
+    public void shouldTimeParsesBySchemeAndResult() {
+        HttpAuthCredentials.parse("Basic YWxhZGRpbjpvcGVuc2VzYW1l");
+        HttpAuthCredentials.parse("bearer mF_9.B5f-4.1JqM");
+        catchThrowable(() -> HttpAuthCredentials.parse("Bearer a/b"));
+        HttpAuthCredentials.parse("X-Custom k=v");
+        HttpAuthCredentials.parse("");
+
+        assertThat(timerCount("Basic", "success")).isEqualTo(1);
+        assertThat(timerCount("Bearer", "success")).isEqualTo(1);
+        assertThat(timerCount("Bearer", "failure")).isEqualTo(1);
+        assertThat(timerCount("other", "success")).isEqualTo(1);
+        assertThat(timerCount("none", "success")).isEqualTo(1);
+        assertThat(registry.get(MicrometerParseMetrics.LENGTH_SUMMARY).summary().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    public void shouldCountErrorsByKind() {
+        catchThrowable(() -> HttpAuthCredentials.parse("Custom a, b"));
+        HttpAuthCredentials.tryParse("Custom a, b, k=v?", false);
+
+        assertThat(errorCount("multiple_token68", "failure")).isEqualTo(1);
+        assertThat(errorCount("multiple_token68", "warning")).isEqualTo(1);
+        assertThat(errorCount("bad_parameter", "warning")).isEqualTo(1);
+        assertThat(errorCount("bad_token", "failure")).isEqualTo(0);
+    }
+
+    private long timerCount(String scheme, String result) {
+        return registry.get(MicrometerParseMetrics.PARSE_TIMER)
+                       .tag("scheme", scheme)
+                       .tag("result", result)
+                       .timer()
+                       .count();
+    }
+
+    private double errorCount(String kind, String result) {
+        return registry.get(MicrometerParseMetrics.ERROR_COUNTER)
+                       .tag("kind", kind)
+                       .tag("result", result)
+                       .counter()
+                       .count();
+    }
+}
@@ -0,0 +1,242 @@
+package im.toss.http.parser.servlet;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import im.toss.http.parser.HttpAuthCredentials;
+import im.toss.http.parser.ParseResult;
+
+/**
+ * Parses the credentials of a request at most once, however many filters and servlets read them.
+ *
+ * <p>The filter stores a request attribute which parses the Authorization header, or the
+ * Proxy-Authorization header if configured, on first access, and keeps the result for the rest
+ * of the request. The credentials are read with {@link #getCredentials(ServletRequest)} or
+ * {@link #getParseResult(ServletRequest)}, which parse the header themselves, with the defaults,
+ * if the filter is not installed. A request which never reads the credentials never parses them.
+ *
+ * <p>The filter is configured with its constructor, or with the init parameters
+ * {@value #STRICT_PARAMETER}, {@code true} by default, and {@value #HEADER_PARAMETER},
+ * {@value #AUTHORIZATION} by default:
+ *
+ * <pre>{@code
+ * <filter>
+ *     <filter-name>httpAuthCredentialsFilter</filter-name>
+ *     <filter-class>im.toss.http.parser.servlet.HttpAuthCredentialsFilter</filter-class>
+ *     <init-param>
+ *         <param-name>strict</param-name>
+ *         <param-value>false</param-value>
+ *     </init-param>
+ * </filter>
+ * }</pre>
+ *
+ * <p>In lenient mode, the errors tolerated are returned by {@link ParseResult#getWarnings()}
+ * instead of being logged, as {@link HttpAuthCredentials#tryParse(CharSequence, boolean)} does.
+ */
+public final class HttpAuthCredentialsFilter implements Filter {
+
+    public static final String AUTHORIZATION = "Authorization";
+    public static final String PROXY_AUTHORIZATION = "Proxy-Authorization";
+
+    public static final String STRICT_PARAMETER = "strict";
+    public static final String HEADER_PARAMETER = "header";
+
+    private static final String AUTHORIZATION_ATTRIBUTE =
+            HttpAuthCredentialsFilter.class.getName() + '.' + AUTHORIZATION;
+    private static final String PROXY_AUTHORIZATION_ATTRIBUTE =
+            HttpAuthCredentialsFilter.class.getName() + '.' + PROXY_AUTHORIZATION;
+
+    private boolean strict;
+    private String header;
+
+    /**
+     * Creates a filter configured by its init parameters.
+     */
+    public HttpAuthCredentialsFilter() {
+        this(true, AUTHORIZATION);
+    }
+
+    /**
+     * Creates a filter, whose configuration may still be overridden by its init parameters.
+     *
+     * @param strict  The parsing fails on the first parsing error if true, and fails only for an
+     *                unclosed quoted string or quoted pair if false
+     * @param header  either {@value #AUTHORIZATION} or {@value #PROXY_AUTHORIZATION}, not null
+     */
+    public HttpAuthCredentialsFilter(boolean strict, String header) {
+        this.strict = strict;
+        this.header = checkHeader(header);
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        String strict = filterConfig.getInitParameter(STRICT_PARAMETER);
+        if (strict != null) {
+            if (!strict.equals("true") && !strict.equals("false")) {
+                throw new IllegalArgumentException(
+                        STRICT_PARAMETER + " must be true or false: " + strict);
+            }
+            this.strict = Boolean.parseBoolean(strict);
+        }
+        String header = filterConfig.getInitParameter(HEADER_PARAMETER);
+        if (header != null) {
+            this.header = checkHeader(header);
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof HttpServletRequest) {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            httpRequest.setAttribute(attributeName(header),
+                                     new LazyParseResult(httpRequest, header, strict));
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Returns the credentials of the Authorization header of the given request, parsed at most
+     * once for the request.
+     *
+     * @param request  the request, not null
+     * @return the credentials, {@link HttpAuthCredentials#none()} if there is no header
+     * @throws im.toss.http.parser.HttpAuthCredentialParseException for every parsing error in
+     * strict mode, as {@link HttpAuthCredentials#parse(String, boolean)} does
+     * @throws im.toss.http.parser.Rfc7230ListParserException if the header has an unclosed quoted
+     * string or quoted pair
+     */
+    public static HttpAuthCredentials getCredentials(ServletRequest request) {
+        return getCredentials(request, AUTHORIZATION);
+    }
+
+    /**
+     * Returns the credentials of the given header of the given request, parsed at most once for
+     * the request.
+     *
+     * @param request  the request, not null
+     * @param header  either {@value #AUTHORIZATION} or {@value #PROXY_AUTHORIZATION}, not null
+     * @return the credentials, {@link HttpAuthCredentials#none()} if there is no header
+     * @throws im.toss.http.parser.HttpAuthCredentialParseException for every parsing error in
+     * strict mode, as {@link HttpAuthCredentials#parse(String, boolean)} does
+     * @throws im.toss.http.parser.Rfc7230ListParserException if the header has an unclosed quoted
+     * string or quoted pair
+     */
+    public static HttpAuthCredentials getCredentials(ServletRequest request, String header) {
+        ParseResult result = getParseResult(request, header);
+        if (!result.isSuccess()) {
+            throw result.getError().exception();
+        }
+        return result.getCredentials();
+    }
+
+    /**
+     * Returns the result of parsing the Authorization header of the given request, parsed at most
+     * once for the request.
+     *
+     * @param request  the request, not null
+     * @return the result, not null
+     */
+    public static ParseResult getParseResult(ServletRequest request) {
+        return getParseResult(request, AUTHORIZATION);
+    }
+
+    /**
+     * Returns the result of parsing the given header of the given request, parsed at most once
+     * for the request.
+     *
+     * @param request  the request, not null
+     * @param header  either {@value #AUTHORIZATION} or {@value #PROXY_AUTHORIZATION}, not null
+     * @return the result, not null
+     */
+    public static ParseResult getParseResult(ServletRequest request, String header) {
+        return lazyParseResult(request, header).get();
+    }
+
+    private static LazyParseResult lazyParseResult(ServletRequest request, String header) {
+        header = checkHeader(header);
+        String name = attributeName(header);
+        Object attribute = request.getAttribute(name);
+        if (attribute instanceof LazyParseResult) {
+            return (LazyParseResult) attribute;
+        }
+        if (!(request instanceof HttpServletRequest)) {
+            throw new IllegalArgumentException("Not an HTTP request: " + request);
+        }
+        // The filter is not installed, so the defaults are used.
+        LazyParseResult lazy = new LazyParseResult((HttpServletRequest) request, header, true);
+        request.setAttribute(name, lazy);
+        return lazy;
+    }
+
+    private static String attributeName(String header) {
+        return header.equals(AUTHORIZATION) ? AUTHORIZATION_ATTRIBUTE
+                                            : PROXY_AUTHORIZATION_ATTRIBUTE;
+    }
+
+    // Returns the given header in the case of the constant, so that it can be compared with it.
+    private static String checkHeader(String header) {
+        Objects.requireNonNull(header, "header must not be null");
+        if (header.equalsIgnoreCase(AUTHORIZATION)) {
+            return AUTHORIZATION;
+        }
+        if (header.equalsIgnoreCase(PROXY_AUTHORIZATION)) {
+            return PROXY_AUTHORIZATION;
+        }
+        throw new IllegalArgumentException(
+                "header must be " + AUTHORIZATION + " or " + PROXY_AUTHORIZATION + ": " + header);
+    }
+
+    @Override
+    public String toString() {
+        return "HttpAuthCredentialsFilter{" + "strict=" + strict + ", header='" + header + '\''
+               + '}';
+    }
+
+    /**
+     * The request attribute, which parses the header on first access.
+     */
+    private static final class LazyParseResult {
+
+        private final HttpServletRequest request;
+        private final String header;
+        private final boolean strict;
+
+        // Racy single-check: a request is rarely read by more than one thread at a time, and
+        // parsing twice gives an equal result.
+        private ParseResult result;
+
+        LazyParseResult(HttpServletRequest request, String header, boolean strict) {
+            this.request = request;
+            this.header = header;
+            this.strict = strict;
+        }
+
+        ParseResult get() {
+            ParseResult result = this.result;
+            if (result == null) {
+                result = HttpAuthCredentials.tryParse(request.getHeader(header), strict);
+                this.result = result;
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "LazyParseResult{" + "header='" + header + '\'' + ", strict=" + strict
+                   + ", result=" + result + '}';
+        }
+    }
+}
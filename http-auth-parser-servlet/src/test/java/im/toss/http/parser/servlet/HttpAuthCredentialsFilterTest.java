@@ -0,0 +1,121 @@
+package im.toss.http.parser.servlet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+import im.toss.http.parser.HttpAuthCredentialParseException;
+import im.toss.http.parser.HttpAuthCredentials;
+import im.toss.http.parser.ParseError;
+import im.toss.http.parser.ParseResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HttpAuthCredentialsFilterTest {
+
+    @Test
+    public void shouldParseOnceOnFirstAccess() throws Exception {
+        HttpServletRequest request = request("Authorization", "Bearer abc");
+        FilterChain chain = (req, res) -> {
+            verify((HttpServletRequest) req, times(0)).getHeader("Authorization");
+            HttpAuthCredentials first = HttpAuthCredentialsFilter.getCredentials(req);
+            HttpAuthCredentials second = HttpAuthCredentialsFilter.getCredentials(req);
+
+            assertThat(first).isEqualTo(new HttpAuthCredentials("Bearer", "abc"));
+            assertThat(second).isSameAs(first);
+            assertThat(HttpAuthCredentialsFilter.getParseResult(req).getCredentials())
+                    .isSameAs(first);
+        };
+
+        new HttpAuthCredentialsFilter().doFilter(request, mock(ServletResponse.class), chain);
+
+        verify(request, times(1)).getHeader("Authorization");
+    }
+
+    @Test
+    public void shouldBeConfiguredByInitParameters() throws Exception {
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getInitParameter("strict")).thenReturn("false");
+        when(config.getInitParameter("header")).thenReturn("proxy-authorization");
+        HttpAuthCredentialsFilter filter = new HttpAuthCredentialsFilter();
+        filter.init(config);
+        HttpServletRequest request = request("Proxy-Authorization", "Custom a?, k=v");
+
+        filter.doFilter(request, mock(ServletResponse.class), (req, res) -> {
+            ParseResult result =
+                    HttpAuthCredentialsFilter.getParseResult(req, "Proxy-Authorization");
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(result.getWarnings()).extracting(ParseError::getKind)
+                                            .containsExactly(ParseError.Kind.BAD_TOKEN);
+            assertThat(HttpAuthCredentialsFilter.getCredentials(req, "Proxy-Authorization")
+                                                .getFirstParam("k")).isEqualTo("v");
+            // The Authorization header is not configured, so the defaults are used.
+            assertThat(HttpAuthCredentialsFilter.getCredentials(req))
+                    .isEqualTo(HttpAuthCredentials.none());
+        });
+    }
+
+    @Test
+    public void shouldThrowInStrictMode() throws Exception {
+        HttpServletRequest request = request("Authorization", "Bearer a/b");
+
+        new HttpAuthCredentialsFilter(true, "Authorization").doFilter(
+                request, mock(ServletResponse.class), (req, res) -> {
+                    assertThat(HttpAuthCredentialsFilter.getParseResult(req).isSuccess())
+                            .isFalse();
+                    assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                            .isThrownBy(() -> HttpAuthCredentialsFilter.getCredentials(req))
+                            .withMessage("Bad token: a/b");
+                });
+
+        // Not parsed again to throw
+        verify(request, times(1)).getHeader("Authorization");
+    }
+
+    @Test
+    public void shouldParseWithoutTheFilter() {
+        HttpServletRequest request = request("Authorization", "Basic dTpwOjo=");
+
+        HttpAuthCredentials credentials = HttpAuthCredentialsFilter.getCredentials(request);
+
+        assertThat(credentials.getToken()).isEqualTo("dTpwOjo=");
+        assertThat(HttpAuthCredentialsFilter.getCredentials(request)).isSameAs(credentials);
+        verify(request, times(1)).getHeader("Authorization");
+    }
+
+    @Test
+    public void shouldRejectOtherHeaders() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new HttpAuthCredentialsFilter(true, "Cookie"));
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getInitParameter("strict")).thenReturn("yes");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new HttpAuthCredentialsFilter().init(config));
+    }
+
+    private static HttpServletRequest request(String header, String value) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader(header)).thenReturn(value);
+        Map<String, Object> attributes = new HashMap<>();
+        doAnswer(invocation -> attributes.put(invocation.getArgumentAt(0, String.class),
+                                              invocation.getArgumentAt(1, Object.class)))
+                .when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(anyString())).thenAnswer(
+                invocation -> attributes.get(invocation.getArgumentAt(0, String.class)));
+        return request;
+    }
+}
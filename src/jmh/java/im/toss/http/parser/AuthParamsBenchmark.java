@@ -0,0 +1,57 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up the Digest params in {@link AuthParams} and in the case-insensitive
+ * {@link TreeMap} it replaced, and getting a param of parsed credentials by its name and by its
+ * {@link DigestParam}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AuthParamsBenchmark {
+
+    private Map<String, List<String>> authParams;
+    private Map<String, List<String>> treeMap;
+
+    @Setup
+    public void setUp() {
+        authParams = HttpAuthCredentials.parse(Corpus.DIGEST).getParams();
+        treeMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        treeMap.putAll(authParams);
+    }
+
+    @Benchmark
+    public Object authParams() {
+        return authParams.get("Response");
+    }
+
+    @Benchmark
+    public Object treeMap() {
+        return treeMap.get("Response");
+    }
+
+    @Benchmark
+    public Object parseAndGetFirstParam() {
+        return HttpAuthCredentials.parse(Corpus.DIGEST).getFirstParam("response");
+    }
+
+    @Benchmark
+    public Object parseAndGetSchemaParam() {
+        return HttpAuthCredentials.parse(Corpus.DIGEST)
+                                  .getParams(DigestParam.SCHEMA)
+                                  .get(DigestParam.RESPONSE);
+    }
+}
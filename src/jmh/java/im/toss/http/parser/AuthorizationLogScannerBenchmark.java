@@ -0,0 +1,60 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Measures {@link AuthorizationLogScanner} over a 64 MiB log of requests, a fifth of which have
+ * an Authorization header of each kind of the {@link Corpus}. The throughput in MiB/s is 64 times
+ * the score.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AuthorizationLogScannerBenchmark {
+
+    private static final String[] KINDS = {"basic", "bearer", "digest", "sigv4", "malformed"};
+
+    private Path file;
+    private AuthorizationLogScanner scanner;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("access", ".log");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, ISO_8859_1)) {
+            long size = 0;
+            for (int i = 0; size < 64 << 20; i++) {
+                String line = "2018-04-01T00:00:00Z 10.0.0." + (i % 256) + " GET /api/" + i
+                              + " 200 Authorization: " + Corpus.get(KINDS[i % KINDS.length])
+                              + "\n";
+                writer.write(line);
+                size += line.length();
+            }
+        }
+        scanner = AuthorizationLogScanner.builder().build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public Object scan() throws IOException {
+        return scanner.scan(file);
+    }
+}
@@ -0,0 +1,47 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures decoding the user-id and the password of the Basic credentials in the {@link Corpus}
+ * with {@link BasicCredentialsDecoder}, against decoding them into strings with
+ * {@link Base64.Decoder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BasicCredentialsDecoderBenchmark {
+
+    private String token68;
+    private BasicCredentialsDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        token68 = HttpAuthCredentials.parse(Corpus.BASIC).getToken();
+        decoder = new BasicCredentialsDecoder();
+    }
+
+    @Benchmark
+    public int decoder() {
+        decoder.decode(token68);
+        return decoder.getUserId().length() + decoder.getPassword().length();
+    }
+
+    @Benchmark
+    public int base64Decoder() {
+        String userPass = new String(Base64.getDecoder().decode(token68), UTF_8);
+        int colon = userPass.indexOf(':');
+        return userPass.substring(0, colon).length() + userPass.substring(colon + 1).length();
+    }
+}
@@ -0,0 +1,63 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing 10,000 credentials of every kind of the {@link Corpus} one by one and with
+ * {@link HttpAuthBatchParser}, in sequence and in parallel in the common pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HttpAuthBatchParserBenchmark {
+
+    private static final String[] KINDS = {"basic", "bearer", "digest", "sigv4", "malformed"};
+
+    private List<String> credentials;
+    private HttpAuthBatchParser sequential;
+    private HttpAuthBatchParser parallel;
+
+    @Setup
+    public void setUp() {
+        credentials = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            credentials.add(Corpus.get(KINDS[i % KINDS.length]));
+        }
+        sequential = HttpAuthBatchParser.builder().build();
+        parallel = HttpAuthBatchParser.builder().pool(ForkJoinPool.commonPool()).build();
+    }
+
+    @Benchmark
+    public Object loop() {
+        List<Object> results = new ArrayList<>(credentials.size());
+        for (String each : credentials) {
+            try {
+                results.add(HttpAuthCredentials.parse(each, true));
+            } catch (HttpAuthCredentialParseException e) {
+                results.add(e);
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Object batch() {
+        return sequential.parse(credentials);
+    }
+
+    @Benchmark
+    public Object batchParallel() {
+        return parallel.parse(credentials);
+    }
+}
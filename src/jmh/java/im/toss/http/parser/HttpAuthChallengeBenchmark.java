@@ -0,0 +1,36 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a WWW-Authenticate header of three challenges with
+ * {@link HttpAuthChallenge#parseAll(String)}, and getting the realm of the Digest challenge.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HttpAuthChallengeBenchmark {
+
+    private static final String CHALLENGES =
+            "Digest realm=\"http-auth@example.org\", qop=\"auth, auth-int\", algorithm=SHA-256,"
+            + " nonce=\"7ypf/xlj9XXwfDPEoM4URrv/xwf94BcCAzFZH4GiTo0v\","
+            + " opaque=\"FQhe/qaU925kfnzjCev0ciny7QMkPqMAFRtzCUYo5tdS\","
+            + " Bearer realm=\"example\", error=\"invalid_token\", Negotiate";
+
+    @Benchmark
+    public Object parseAll() {
+        return HttpAuthChallenge.parseAll(CHALLENGES);
+    }
+
+    @Benchmark
+    public Object parseAllAndGetRealm() {
+        return HttpAuthChallenge.parseAll(CHALLENGES).get(0).getFirstParam("realm");
+    }
+}
@@ -0,0 +1,75 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HttpAuthCredentials#parse(String, boolean)} over the {@link Corpus}.
+ *
+ * <p>The SigV4 and malformed credentials fail in strict mode, so those cases measure the cost of
+ * the error path, which {@link #tryParse()} takes without creating any exception. Warnings of
+ * lenient mode are not logged; see {@code logback.xml}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HttpAuthCredentialsBenchmark {
+
+    @Param({"basic", "bearer", "digest", "sigv4", "malformed"})
+    public String kind;
+
+    @Param({"true", "false"})
+    public boolean strict;
+
+    private String credentials;
+    private byte[] bytes;
+    private CachingHttpAuthParser cachingParser;
+
+    @Setup
+    public void setUp() {
+        credentials = Corpus.get(kind);
+        bytes = credentials.getBytes(StandardCharsets.ISO_8859_1);
+        cachingParser = CachingHttpAuthParser.builder().strict(strict).build();
+    }
+
+    @Benchmark
+    public Object parse() {
+        try {
+            return HttpAuthCredentials.parse(credentials, strict);
+        } catch (HttpAuthCredentialParseException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object tryParse() {
+        return HttpAuthCredentials.tryParse(credentials, strict);
+    }
+
+    @Benchmark
+    public Object parseBytes() {
+        try {
+            return HttpAuthCredentials.parseBytes(bytes, 0, bytes.length, strict);
+        } catch (HttpAuthCredentialParseException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object parseCached() {
+        try {
+            return cachingParser.parse(credentials);
+        } catch (HttpAuthCredentialParseException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Measures formatting the Digest credentials of the {@link Corpus} into a header value with
+ * {@link HttpAuthCredentialsFormatter}, against concatenating strings and encoding the result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class HttpAuthCredentialsFormatterBenchmark {
+
+    private HttpAuthCredentials credentials;
+    private HttpAuthCredentialsFormatter formatter;
+    private HttpAuthCredentialsFormatter caching;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        credentials = HttpAuthCredentials.parse(Corpus.DIGEST);
+        credentials.getParams();
+        formatter = HttpAuthCredentialsFormatter.getDefault();
+        caching = HttpAuthCredentialsFormatter.builder().cacheBytes(true).build();
+        buffer = ByteBuffer.allocate(1024);
+    }
+
+    @Benchmark
+    public byte[] concatenation() {
+        String header = credentials.getScheme();
+        boolean first = true;
+        for (Map.Entry<String, List<String>> param : credentials.getParams().entrySet()) {
+            for (String value : param.getValue()) {
+                header += (first ? " " : ", ") + param.getKey() + "=" + value;
+                first = false;
+            }
+        }
+        return header.getBytes(ISO_8859_1);
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.format(credentials);
+    }
+
+    @Benchmark
+    public int writeBuffer() {
+        buffer.clear();
+        return formatter.write(credentials, buffer);
+    }
+
+    @Benchmark
+    public int writeCachedBuffer() {
+        buffer.clear();
+        return caching.write(credentials, buffer);
+    }
+}
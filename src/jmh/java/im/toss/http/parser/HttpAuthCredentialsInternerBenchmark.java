@@ -0,0 +1,58 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up the Digest credentials of the {@link Corpus} four times, as a request would
+ * in several maps keyed by credentials, with a parsed equal copy as the key, and with the copy
+ * interned first by {@link HttpAuthCredentialsInterner}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class HttpAuthCredentialsInternerBenchmark {
+
+    private HttpAuthCredentials copy;
+    private HttpAuthCredentialsInterner interner;
+    private Map<HttpAuthCredentials, Object> sessions;
+
+    @Setup
+    public void setUp() {
+        interner = HttpAuthCredentialsInterner.builder().build();
+        HttpAuthCredentials credentials = interner.intern(HttpAuthCredentials.parse(Corpus.DIGEST));
+        sessions = new HashMap<>();
+        sessions.put(credentials, new Object());
+        copy = HttpAuthCredentials.parse(Corpus.DIGEST);
+        copy.getParams();
+    }
+
+    @Benchmark
+    public int lookups() {
+        return lookups(copy);
+    }
+
+    @Benchmark
+    public int internedLookups() {
+        return lookups(interner.intern(copy));
+    }
+
+    private int lookups(HttpAuthCredentials key) {
+        int found = 0;
+        for (int i = 0; i < 4; i++) {
+            if (sessions.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
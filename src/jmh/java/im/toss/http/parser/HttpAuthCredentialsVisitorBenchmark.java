@@ -0,0 +1,47 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares extracting the realm of the Digest credentials with a visitor and with
+ * {@link HttpAuthCredentials#getFirstParam(String)} on fully parsed credentials.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HttpAuthCredentialsVisitorBenchmark {
+
+    private final RealmVisitor visitor = new RealmVisitor();
+
+    @Benchmark
+    public Object parse() {
+        return HttpAuthCredentials.parse(Corpus.DIGEST, true).getFirstParam("realm");
+    }
+
+    @Benchmark
+    public Object visit() {
+        visitor.realm = null;
+        HttpAuthCredentials.parse(Corpus.DIGEST, true, visitor);
+        return visitor.realm;
+    }
+
+    private static final class RealmVisitor implements HttpAuthCredentialsVisitor {
+        String realm;
+
+        @Override
+        public boolean onParam(CharSequence name, CharSequence value) {
+            if (HttpAuthCredentialsVisitor.nameEquals(name, "realm")) {
+                realm = value.toString();
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Measures parsing the credentials of the {@link Corpus} which arrive in three buffers, by feeding
+ * the buffers to a {@link IncrementalHttpAuthParser}, against gathering them into a string to
+ * parse. Both get the token and the params, which the parsed string would otherwise slice lazily.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class IncrementalHttpAuthParserBenchmark {
+
+    @Param({"basic", "bearer", "digest"})
+    public String kind;
+
+    private ByteBuffer[] buffers;
+    private IncrementalHttpAuthParser parser;
+
+    @Setup
+    public void setUp() {
+        byte[] bytes = Corpus.get(kind).getBytes(ISO_8859_1);
+        int third = bytes.length / 3;
+        buffers = new ByteBuffer[] {
+                ByteBuffer.wrap(bytes, 0, third),
+                ByteBuffer.wrap(bytes, third, third),
+                ByteBuffer.wrap(bytes, third * 2, bytes.length - third * 2)
+        };
+        parser = new IncrementalHttpAuthParser(true);
+    }
+
+    @Benchmark
+    public int incremental() {
+        for (ByteBuffer buffer : buffers) {
+            parser.feed(buffer.duplicate());
+        }
+        return consume(parser.finish());
+    }
+
+    @Benchmark
+    public int gathered() {
+        ByteArrayOutputStream gathered = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            gathered.write(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                           buffer.remaining());
+        }
+        return consume(HttpAuthCredentials.tryParse(new String(gathered.toByteArray(), ISO_8859_1),
+                                                    true));
+    }
+
+    private static int consume(ParseResult result) {
+        HttpAuthCredentials credentials = result.getCredentials();
+        return credentials.getToken().length() + credentials.getParams().size();
+    }
+}
@@ -0,0 +1,60 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures splitting the auth-params of the {@link Corpus} with {@link Rfc7230ListParser} and
+ * {@link KvPair}. {@link #split()} reuses a parser, and only splits the list into offsets, which
+ * the {@code gc} profiler reports as allocating nothing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class Rfc7230ListParserBenchmark {
+
+    @Param({"digest", "sigv4"})
+    public String kind;
+
+    private String list;
+    private String element;
+    private Rfc7230ListParser parser;
+
+    @Setup
+    public void setUp() {
+        list = Corpus.list(kind);
+        element = Rfc7230ListParser.parse(list).values().get(0);
+        parser = new Rfc7230ListParser();
+    }
+
+    @Benchmark
+    public int split() {
+        return parser.split(list);
+    }
+
+    @Benchmark
+    public Object listParser() {
+        return Rfc7230ListParser.parse(list).values();
+    }
+
+    @Benchmark
+    public Object kvPair() {
+        return KvPair.parse(element);
+    }
+
+    @Benchmark
+    public void listParserAndKvPair(Blackhole blackhole) {
+        for (String value : Rfc7230ListParser.parse(list).values()) {
+            blackhole.consume(KvPair.parse(value));
+        }
+    }
+}
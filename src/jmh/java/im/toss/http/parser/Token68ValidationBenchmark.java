@@ -0,0 +1,175 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Measures validating JWT-like token68 values of several lengths with
+ * {@link Rfc7235Token68Validator}, as a {@link String}, and as bytes, with the block scan of
+ * {@link CharClasses#indexOfNot} against the scalar scan.
+ *
+ * <p>Two alternatives which are not used are measured as well: a SWAR scan of the bytes, which
+ * classifies 8 bytes of a long with arithmetic instead of the table, and a scan of the
+ * {@link String} 8 characters at a time, as the bytes are scanned.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class Token68ValidationBenchmark {
+
+    @Param({"64", "1024", "4096"})
+    public int length;
+
+    private String string;
+    private CharSequence bytes;
+    private ByteBuffer buffer;
+    private Rfc7235Token68Validator validator;
+
+    @Setup
+    public void setUp() {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.";
+        StringBuilder token = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            token.append(alphabet.charAt((i * 31 + i / 7) % alphabet.length()));
+        }
+        string = token.toString();
+        byte[] array = string.getBytes(ISO_8859_1);
+        bytes = Latin1CharSequence.of(array, 0, array.length);
+        buffer = ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN);
+        validator = new Rfc7235Token68Validator();
+
+        // The alternatives must give the same result as the scalar scan, at every position.
+        for (int i = 0; i <= 255; i++) {
+            array[length / 2] = (byte) i;
+            String chars = new String(array, ISO_8859_1);
+            int expected = CharClasses.scalarIndexOfNot(bytes, 0, length, CharClasses.TCHAR);
+            if (swarIndexOfNotTchar(buffer, 0, length) != expected
+                || blockIndexOfNotTchar(chars, 0, length) != expected) {
+                throw new AssertionError("Not the same index for " + i);
+            }
+        }
+        array[length / 2] = (byte) string.charAt(length / 2);
+    }
+
+    @Benchmark
+    public int string() {
+        return validator.indexOfError(string, 0, length);
+    }
+
+    @Benchmark
+    public int bytes() {
+        return validator.indexOfError(bytes, 0, length);
+    }
+
+    @Benchmark
+    public int bytesScalar() {
+        return CharClasses.scalarIndexOfNot(bytes, 0, length, CharClasses.TCHAR);
+    }
+
+    @Benchmark
+    public int bytesSwar() {
+        return swarIndexOfNotTchar(buffer, 0, length);
+    }
+
+    @Benchmark
+    public int stringBlock() {
+        return blockIndexOfNotTchar(string, 0, length);
+    }
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private static final byte[] TCHARS = new byte[256];
+
+    static {
+        for (char ch = 0; ch < TCHARS.length; ch++) {
+            TCHARS[ch] = (byte) (CharClasses.is(ch, CharClasses.TCHAR) ? 1 : 0);
+        }
+    }
+
+    private static int swarIndexOfNotTchar(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        for (int blockEnd = end - 8; i <= blockEnd; i += 8) {
+            // An unaligned load since Java 9, eight single byte loads on Java 8
+            long notTchar = notTchar(buffer.getLong(i));
+            if (notTchar != 0) {
+                return i + Long.numberOfTrailingZeros(notTchar) / 8;
+            }
+        }
+        for (; i < end; i++) {
+            if (!CharClasses.is((char) (buffer.get(i) & 0xFF), CharClasses.TCHAR)) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    // Returns the high bit of each byte of the given word which is not a tchar. Every test is
+    // exact for each byte, as no byte of the operands has its high bit set, so nothing carries.
+    private static long notTchar(long word) {
+        long v = word & ~HIGHS;
+        long notTchar = word
+                        | ~greaterThan(v, ' ')
+                        | equalTo(v, '"')
+                        | between(v, '(', ')')
+                        | equalTo(v, ',')
+                        | equalTo(v, '/')
+                        | between(v, ':', '@')
+                        | between(v, '[', ']')
+                        // "{", "}" and DEL, the odd ones above "z"
+                        | greaterThan(v, 'z') & v << 7;
+        return notTchar & HIGHS;
+    }
+
+    private static long greaterThan(long v, int n) {
+        return (v + (0x7F - n) * ONES) & HIGHS;
+    }
+
+    private static long between(long v, int low, int high) {
+        return greaterThan(v, low - 1) & ~greaterThan(v, high);
+    }
+
+    private static long equalTo(long v, int ch) {
+        long x = v ^ (ch * ONES);
+        return ~((x + ~HIGHS) | x) & HIGHS;
+    }
+
+    private static int blockIndexOfNotTchar(String input, int start, int end) {
+        byte[] table = TCHARS;
+        int i = start;
+        for (int blockEnd = end - 8; i <= blockEnd; i += 8) {
+            char c0 = input.charAt(i);
+            char c1 = input.charAt(i + 1);
+            char c2 = input.charAt(i + 2);
+            char c3 = input.charAt(i + 3);
+            char c4 = input.charAt(i + 4);
+            char c5 = input.charAt(i + 5);
+            char c6 = input.charAt(i + 6);
+            char c7 = input.charAt(i + 7);
+            if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) > 0xFF
+                || (table[c0] & table[c1] & table[c2] & table[c3]
+                    & table[c4] & table[c5] & table[c6] & table[c7]) == 0) {
+                break;
+            }
+        }
+        for (; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch > 0xFF || table[ch] == 0) {
+                return i;
+            }
+        }
+        return end;
+    }
+}
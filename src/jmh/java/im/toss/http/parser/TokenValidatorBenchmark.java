@@ -0,0 +1,92 @@
+package im.toss.http.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_QUOTED_STRING;
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_TOKEN;
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7235_TOKEN68;
+
+/**
+ * Compares the lookup table based validators with the regular expression based ones they
+ * replaced.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TokenValidatorBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("[^-A-Za-z0-9!#$%&'*+.^_`|~ \"\\\\]");
+    private static final Pattern TOKEN68 = Pattern.compile("[^-A-Za-z0-9!#$%&'*+.^_`|~]");
+
+    @Param({"basic", "bearer"})
+    public String kind;
+
+    private String token68;
+    private String token;
+    private String quotedString;
+
+    private TokenValidator tokenValidator;
+    private TokenValidator token68Validator;
+    private TokenValidator quotedStringValidator;
+
+    @Setup
+    public void setUp() {
+        if (kind.equals("basic")) {
+            token68 = "YWxhZGRpbjpvcGVuc2VzYW1l";
+        } else {
+            token68 = "eyJhbGciOiJSUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiIxMjM0NTY3ODkwIiwibmFtZSI6Ikpv"
+                      + "aG4gRG9lIiwiYWRtaW4iOnRydWUsImlhdCI6MTUxNjIzOTAyMn0.POstGetfAytaZS82wHcjo"
+                      + "TyoqhMyxXiWdR7Nhw9m2wZ6eH-aYgTBoOfd3kTmYLuHPpS8xDvmBxm6oSaX-YamjRXBWRIM5Dq"
+                      + "N8lG0VUZRY2dB0ZJPx4A6ghsk2SiDxxb3MpuU2wQGBRmHBh9mLjbeKrqwI8GAMzxhLgnh_ITgn";
+        }
+        token = "SHA-512-256";
+        quotedString = "\"7ypf/xlj9XXwfDPEoM4URrv/xwf94BcCAzFZH4GiTo0v\"";
+
+        tokenValidator = TokenValidatorFactory.validator(RFC7230_TOKEN);
+        token68Validator = TokenValidatorFactory.validator(RFC7235_TOKEN68);
+        quotedStringValidator = TokenValidatorFactory.validator(RFC7230_QUOTED_STRING);
+    }
+
+    @Benchmark
+    public void token68Regex() {
+        Matcher matcher = TOKEN68.matcher(token68);
+        if (matcher.find()
+            && !(matcher.start() == token68.length() - 1 && matcher.group().equals("="))) {
+            throw new TokenValidationException(matcher.group());
+        }
+    }
+
+    @Benchmark
+    public void token68Table() {
+        token68Validator.validate(token68);
+    }
+
+    @Benchmark
+    public void tokenRegex() {
+        Matcher matcher = TOKEN.matcher(token);
+        if (matcher.find()) {
+            throw new TokenValidationException(matcher.group());
+        }
+    }
+
+    @Benchmark
+    public void tokenTable() {
+        tokenValidator.validate(token);
+    }
+
+    @Benchmark
+    public void quotedStringTable() {
+        quotedStringValidator.validate(quotedString);
+    }
+}
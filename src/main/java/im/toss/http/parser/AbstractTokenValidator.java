@@ -2,6 +2,19 @@ package im.toss.http.parser;
 
 abstract class AbstractTokenValidator implements TokenValidator {
 
+    /**
+     * Finds the first error in the given region of the input, without creating any object, so
+     * that an invalid input costs no more than a valid one.
+     *
+     * @param input  the input, not null
+     * @param start  the start index of the region, inclusive
+     * @param end  the end index of the region, exclusive
+     * @return the index of the first character {@link #validate(String)} would reject,
+     * {@code end} if the region ends too early, or -1 if {@link #validate(String)} would accept
+     * the region
+     */
+    abstract int indexOfError(CharSequence input, int start, int end);
+
     protected String unexpectedCharacterError(String unexpectedCharacter, int position) {
         return String.format("Unexpected character '%s' at position %d",
                              unexpectedCharacter, position);
@@ -10,4 +23,10 @@ abstract class AbstractTokenValidator implements TokenValidator {
     protected String unexpectedCharacterError(char unexpectedCharacter, int position) {
         return unexpectedCharacterError("" + unexpectedCharacter, position);
     }
+
+    protected String unexpectedCodePointError(String input, int position) {
+        // A supplementary character is reported as a whole, as java.util.regex did.
+        int length = Character.charCount(input.codePointAt(position));
+        return unexpectedCharacterError(input.substring(position, position + length), position);
+    }
 }
@@ -0,0 +1,332 @@
+package im.toss.http.parser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map of auth-params whose names are case-insensitive.
+ *
+ * <p>The names, their case-folded hashes and the values are kept in parallel arrays in insertion
+ * order. A name with a single value, which is nearly always the case, keeps the value inline; only
+ * a repeated name spills its values into a list. Looking up a name hashes it without folding it
+ * into a new string and compares it with the names of the same hash, so a lookup does not
+ * allocate. The names are scanned linearly up to {@value #MAX_LINEAR_SIZE} names, and looked up in
+ * an open-addressed table beyond that.
+ *
+ * <p>Names are equal if {@link String#CASE_INSENSITIVE_ORDER} says so, as in the
+ * {@link java.util.TreeMap} which this replaces.
+ */
+final class AuthParams extends AbstractMap<String, List<String>> {
+
+    private static final int MAX_LINEAR_SIZE = 8;
+
+    private final String[] names;
+    private final int[] hashes;
+
+    // A String if the name has a single value, otherwise a List<String>
+    private final Object[] values;
+
+    // Indexes of the names plus one by hash, or null if the names are scanned linearly
+    private final int[] table;
+
+    private final int size;
+
+    // Lists of single values, created on first access
+    private final List<String>[] singletonLists;
+
+    private EntrySet entrySet;
+
+    private AuthParams(Builder builder) {
+        this.names = builder.names;
+        this.hashes = builder.hashes;
+        this.values = builder.values;
+        this.table = builder.table;
+        this.size = builder.size;
+        this.singletonLists = newLists(size);
+    }
+
+    private AuthParams(AuthParams params, Object[] values) {
+        // Only the values differ, so the names and the table are shared.
+        this.names = params.names;
+        this.hashes = params.hashes;
+        this.values = values;
+        this.table = params.table;
+        this.size = params.size;
+        this.singletonLists = newLists(size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newLists(int size) {
+        return (List<String>[]) new List<?>[size];
+    }
+
+    /**
+     * Creates the params from the regions of the auth-params recorded while parsing, taking the
+     * names of the schema instead of copying the names which are the same.
+     *
+     * @param input  the parsed input, not null
+     * @param regions  the start and end indexes of the key and the value of each auth-param, not
+     *                 null
+     * @param schema  the schema of the scheme of the input, or null
+     * @return the params, not null
+     */
+    static AuthParams of(CharSequence input, int[] regions, ParamSchema<?> schema) {
+        Builder builder = new Builder(regions.length / 4, schema);
+        for (int i = 0; i < regions.length; i += 4) {
+            builder.add(input, regions[i], regions[i + 1],
+                        input.subSequence(regions[i + 2], regions[i + 3]).toString());
+        }
+        return builder.build();
+    }
+
+    private int indexOf(Object name) {
+        if (!(name instanceof String)) {
+            return -1;
+        }
+        String string = (String) name;
+        return indexOf(names, hashes, table, size,
+                       hash(string, 0, string.length()), string, 0, string.length());
+    }
+
+    static int indexOf(String[] names, int[] hashes, int[] table, int size, int hash,
+                       CharSequence name, int start, int end) {
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == hash && equalsIgnoreCase(names[i], name, start, end)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int slot = hash & (table.length - 1);
+        while (table[slot] != 0) {
+            int i = table[slot] - 1;
+            if (hashes[i] == hash && equalsIgnoreCase(names[i], name, start, end)) {
+                return i;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    private List<String> valuesAt(int index) {
+        Object value = values[index];
+        if (!(value instanceof String)) {
+            @SuppressWarnings("unchecked")
+            List<String> list = (List<String>) value;
+            return list;
+        }
+        // Racy single-check; a singleton list is immutable, so it is safe to share.
+        List<String> list = singletonLists[index];
+        if (list == null) {
+            list = Collections.singletonList((String) value);
+            singletonLists[index] = list;
+        }
+        return list;
+    }
+
+    /**
+     * Returns the params with the values decoded by {@link QuotedStrings#unquote(String)}.
+     *
+     * @return the decoded params, not null
+     */
+    @SuppressWarnings("unchecked")
+    AuthParams decoded() {
+        Object[] decoded = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Object value = values[i];
+            if (value instanceof String) {
+                decoded[i] = QuotedStrings.unquote((String) value);
+            } else {
+                List<String> list = new ArrayList<>();
+                for (String each : (List<String>) value) {
+                    list.add(QuotedStrings.unquote(each));
+                }
+                decoded[i] = Collections.unmodifiableList(list);
+            }
+        }
+        return new AuthParams(this, decoded);
+    }
+
+    /**
+     * Returns the first value of the given name without creating any list.
+     *
+     * @param name  the name of the param
+     * @return the first value, or null if there is no such param
+     */
+    @SuppressWarnings("unchecked")
+    String first(Object name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        Object value = values[index];
+        return value instanceof String ? (String) value : ((List<String>) value).get(0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public List<String> get(Object name) {
+        int index = indexOf(name);
+        return index < 0 ? null : valuesAt(index);
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<String>>> entrySet() {
+        EntrySet entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    static int hash(CharSequence name, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fold(name.charAt(i));
+        }
+        // Spread the higher bits, as the table is indexed by the lower ones.
+        return hash ^ (hash >>> 16);
+    }
+
+    static boolean equalsIgnoreCase(String name, CharSequence other, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char a = name.charAt(i);
+            char b = other.charAt(start + i);
+            if (a != b && fold(a) != fold(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char fold(char ch) {
+        // The same folding as String.CASE_INSENSITIVE_ORDER
+        if (ch < 0x80) {
+            return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+        }
+        return Character.toLowerCase(Character.toUpperCase(ch));
+    }
+
+    /**
+     * Creates the open-addressed table of the given hashes, in which a name is found by
+     * {@link #indexOf(String[], int[], int[], int, int, CharSequence, int, int)}.
+     *
+     * @param capacity  the maximum number of names
+     * @return the table of the indexes of the names plus one, or null if the names are few enough
+     * to be scanned linearly
+     */
+    static int[] table(int capacity) {
+        return capacity > MAX_LINEAR_SIZE
+               ? new int[Integer.highestOneBit(capacity * 2 - 1) * 2]
+               : null;
+    }
+
+    static void putInTable(int[] table, int hash, int index) {
+        int slot = hash & (table.length - 1);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & (table.length - 1);
+        }
+        table[slot] = index + 1;
+    }
+
+    private static final class Builder {
+
+        private final ParamSchema<?> schema;
+        private final String[] names;
+        private final int[] hashes;
+        private final Object[] values;
+        private final int[] table;
+        private int size;
+
+        Builder(int capacity, ParamSchema<?> schema) {
+            this.schema = schema;
+            this.names = new String[capacity];
+            this.hashes = new int[capacity];
+            this.values = new Object[capacity];
+            this.table = table(capacity);
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(CharSequence input, int start, int end, String value) {
+            int hash = hash(input, start, end);
+            int index = indexOf(names, hashes, table, size, hash, input, start, end);
+            if (index < 0) {
+                index = size++;
+                String name = schema == null ? null : schema.nameOf(input, start, end, hash);
+                names[index] = name != null ? name : input.subSequence(start, end).toString();
+                hashes[index] = hash;
+                values[index] = value;
+                if (table != null) {
+                    putInTable(table, hash, index);
+                }
+            } else if (values[index] instanceof String) {
+                List<String> list = new ArrayList<>(2);
+                list.add((String) values[index]);
+                list.add(value);
+                values[index] = list;
+            } else {
+                ((List<String>) values[index]).add(value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        AuthParams build() {
+            for (int i = 0; i < size; i++) {
+                if (values[i] instanceof List) {
+                    values[i] = Collections.unmodifiableList((List<String>) values[i]);
+                }
+            }
+            return new AuthParams(this);
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, List<String>>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, List<String>>> iterator() {
+            return new Iterator<Map.Entry<String, List<String>>>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Map.Entry<String, List<String>> next() {
+                    if (index >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    int i = index++;
+                    return new SimpleImmutableEntry<>(names[i], valuesAt(i));
+                }
+            };
+        }
+    }
+}
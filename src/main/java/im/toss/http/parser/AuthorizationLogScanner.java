@@ -0,0 +1,234 @@
+package im.toss.http.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Scans logs of HTTP requests for the values of a header such as {@code Authorization}, and
+ * reports statistics of the schemes, the params and the parsing errors of the credentials found.
+ *
+ * <p>The file is memory-mapped in chunks which end at line boundaries, and the chunks are scanned
+ * in parallel. A header is found by scanning the bytes for its name, case-insensitively, where it
+ * is not preceded by a token character and is followed by a colon. Its value runs to the end of
+ * the line, without the surrounding whitespace, and is parsed from the mapped bytes as ISO-8859-1
+ * without being decoded into a string. So a raw request dump, or a log with one header per line,
+ * can be scanned. HAR files and other JSON logs are not supported: a header written as
+ * {@code "name": "Authorization"} is not followed by a colon, and is never found.
+ *
+ * <pre>{@code
+ * ScanStatistics statistics = AuthorizationLogScanner.builder()
+ *                                                    .build()
+ *                                                    .scan(Paths.get("access.log"));
+ * statistics.getSchemeCounts();
+ * }</pre>
+ */
+public final class AuthorizationLogScanner {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final byte[] headerName;
+    private final boolean strict;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    private AuthorizationLogScanner(Builder builder) {
+        this.headerName = builder.headerName.toLowerCase(Locale.ROOT).getBytes(ISO_8859_1);
+        this.strict = builder.strict;
+        this.pool = builder.pool;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Scans the given file.
+     *
+     * @param file  the file to scan, not null
+     * @return the statistics of the credentials found, not null
+     * @throws IOException if the file cannot be read
+     */
+    public ScanStatistics scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            List<ForkJoinTask<ScanStatistics.Collector>> tasks = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = chunkEnd(channel, start, size);
+                MappedByteBuffer chunk =
+                        channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                tasks.add(pool.submit(() -> scan(chunk)));
+                start = end;
+            }
+
+            List<ScanStatistics.Collector> collectors = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<ScanStatistics.Collector> task : tasks) {
+                collectors.add(task.join());
+            }
+            return ScanStatistics.Collector.merge(collectors);
+        }
+    }
+
+    private long chunkEnd(FileChannel channel, long start, long size) throws IOException {
+        long end = start + chunkSize;
+        if (end >= size) {
+            return size;
+        }
+        // Extend the chunk to the end of the line, so that no line is split.
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (end < size) {
+            buffer.clear();
+            int read = channel.read(buffer, end);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LF) {
+                    return end + i + 1;
+                }
+            }
+            end += read;
+        }
+        return size;
+    }
+
+    private ScanStatistics.Collector scan(ByteBuffer chunk) {
+        ScanStatistics.Collector collector = new ScanStatistics.Collector();
+        int limit = chunk.limit();
+        byte first = headerName[0];
+        int i = 0;
+        while (i < limit) {
+            // A quick test of the first byte before matching the whole name
+            if (toLowerCase(chunk.get(i)) != first || !matchesName(chunk, i, limit)) {
+                i++;
+                continue;
+            }
+
+            int valueStart = i + headerName.length + 1;
+            while (valueStart < limit && isOws(chunk.get(valueStart))) {
+                valueStart++;
+            }
+            int valueEnd = valueStart;
+            while (valueEnd < limit && chunk.get(valueEnd) != CR && chunk.get(valueEnd) != LF) {
+                valueEnd++;
+            }
+            i = valueEnd;
+            while (valueEnd > valueStart && isOws(chunk.get(valueEnd - 1))) {
+                valueEnd--;
+            }
+
+            CharSequence value = Latin1CharSequence.of(chunk, valueStart, valueEnd - valueStart);
+            collector.add(Rfc7235CredentialsParser.visit(value, strict, collector));
+        }
+        collector.addBytes(limit);
+        return collector;
+    }
+
+    private boolean matchesName(ByteBuffer chunk, int start, int limit) {
+        int colon = start + headerName.length;
+        if (colon >= limit || chunk.get(colon) != ':') {
+            return false;
+        }
+        if (start > 0 && CharClasses.is((char) (chunk.get(start - 1) & 0xFF), CharClasses.TCHAR)) {
+            // Such as Proxy-Authorization
+            return false;
+        }
+        for (int i = 0; i < headerName.length; i++) {
+            if (toLowerCase(chunk.get(start + i)) != headerName[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static boolean isOws(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    public static final class Builder {
+
+        private String headerName = "Authorization";
+        private boolean strict;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int chunkSize = 64 << 20;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the name of the header to scan for, case-insensitive. "Authorization" by default.
+         *
+         * @param headerName  the name of the header, a token, not null
+         * @return this builder
+         */
+        public Builder headerName(String headerName) {
+            if (headerName.isEmpty()
+                || CharClasses.indexOfNot(headerName, 0, headerName.length(), CharClasses.TCHAR)
+                   < headerName.length()) {
+                throw new IllegalArgumentException("headerName must be a token: " + headerName);
+            }
+            this.headerName = headerName;
+            return this;
+        }
+
+        /**
+         * Sets whether to parse in strict mode. False by default, so that the params of
+         * credentials with tolerable errors are counted too.
+         *
+         * @param strict  The parsing of credentials fails on its first parsing error if true, and
+         *                fails only for an unclosed quoted string or quoted pair if false
+         * @return this builder
+         */
+        public Builder strict(boolean strict) {
+            this.strict = strict;
+            return this;
+        }
+
+        /**
+         * Sets the pool to scan the chunks in. The common pool by default.
+         *
+         * @param pool  the pool, not null
+         * @return this builder
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "pool must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the size of the chunks the file is mapped and scanned in, which are extended to
+         * the end of their last line. 64 MiB by default.
+         *
+         * @param chunkSize  the size in bytes, positive and at most 1 GiB
+         * @return this builder
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize <= 0 || chunkSize > 1 << 30) {
+                throw new IllegalArgumentException(
+                        "chunkSize must be positive and at most 1 GiB: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public AuthorizationLogScanner build() {
+            return new AuthorizationLogScanner(this);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package im.toss.http.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Decodes the user-id and the password of Basic credentials from their token68.
+ *
+ * <p>The token68 is decoded from Base64 and then from the charset into buffers which are reused
+ * by every subsequent decode, and the user-id and the password are views of the decoded chars, so
+ * no string is created. As the password is never copied into a string either, {@link #clear()}
+ * erases every trace of it from the decoder. A decode which fails erases it as well, so that
+ * clear() is only needed after a successful decode. A decoder must not be used by more than one
+ * thread at a time.
+ *
+ * <pre>{@code
+ * BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+ * if ("Basic".equalsIgnoreCase(credentials.getScheme())
+ *     && decoder.decode(credentials.getToken())) {
+ *     authenticate(decoder.getUserId(), decoder.getPassword());
+ *     decoder.clear();
+ * }
+ * }</pre>
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7617#section-2">Section 2 of RFC 7617</a>
+ */
+public final class BasicCredentialsDecoder {
+
+    // The value of each character of the Base64 alphabet, or -1
+    private static final byte[] BASE64 = new byte[128];
+
+    static {
+        Arrays.fill(BASE64, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final CharsetDecoder charsetDecoder;
+    private final float maxCharsPerByte;
+
+    private byte[] bytes;
+    private ByteBuffer byteBuffer;
+    private char[] chars;
+    private CharBuffer charBuffer;
+    private CharBuffer userId;
+    private CharBuffer password;
+
+    // The index of the colon in the chars, or -1 if nothing is decoded
+    private int colon = -1;
+
+    /**
+     * Creates a decoder for credentials encoded in UTF-8, the only charset allowed by RFC 7617.
+     */
+    public BasicCredentialsDecoder() {
+        this(UTF_8);
+    }
+
+    /**
+     * Creates a decoder for credentials encoded in the given charset, such as ISO-8859-1 for
+     * clients which do not use UTF-8.
+     *
+     * @param charset  the charset, not null
+     */
+    public BasicCredentialsDecoder(Charset charset) {
+        this.charsetDecoder = charset.newDecoder()
+                                     .onMalformedInput(CodingErrorAction.REPORT)
+                                     .onUnmappableCharacter(CodingErrorAction.REPORT);
+        this.maxCharsPerByte = charsetDecoder.maxCharsPerByte();
+        allocate(64);
+    }
+
+    private void allocate(int size) {
+        bytes = new byte[size];
+        byteBuffer = ByteBuffer.wrap(bytes);
+        chars = new char[(int) Math.ceil(size * maxCharsPerByte)];
+        charBuffer = CharBuffer.wrap(chars);
+        userId = CharBuffer.wrap(chars);
+        password = CharBuffer.wrap(chars);
+    }
+
+    /**
+     * Decodes the given token68 of Basic credentials, replacing anything decoded before.
+     *
+     * @param token68  the token68, with or without padding, not null
+     * @return true if it is Base64 of a user-id and a password separated by a colon, in the
+     * charset of this decoder. If false, the buffers are erased as by {@link #clear()}.
+     */
+    public boolean decode(CharSequence token68) {
+        if (decodeInto(token68)) {
+            return true;
+        }
+        // Neither the password decoded before nor part of this one may be left in the buffers.
+        clear();
+        return false;
+    }
+
+    private boolean decodeInto(CharSequence token68) {
+        colon = -1;
+
+        int end = token68.length();
+        int padding = 0;
+        while (padding < 2 && end > 0 && token68.charAt(end - 1) == '=') {
+            end--;
+            padding++;
+        }
+        if (end % 4 == 1 || (padding > 0 && (end + padding) % 4 != 0)) {
+            return false;
+        }
+
+        int size = end / 4 * 3 + Math.max(end % 4 - 1, 0);
+        if (size > bytes.length) {
+            clear();
+            allocate(Math.max(size, bytes.length * 2));
+        }
+
+        int bits = 0;
+        int bitCount = 0;
+        int length = 0;
+        for (int i = 0; i < end; i++) {
+            char ch = token68.charAt(i);
+            int value = ch < BASE64.length ? BASE64[ch] : -1;
+            if (value < 0) {
+                return false;
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                bytes[length++] = (byte) (bits >> bitCount);
+            }
+        }
+
+        byteBuffer.clear();
+        byteBuffer.limit(length);
+        charBuffer.clear();
+        charsetDecoder.reset();
+        CoderResult result = charsetDecoder.decode(byteBuffer, charBuffer, true);
+        if (!result.isUnderflow() || !charsetDecoder.flush(charBuffer).isUnderflow()) {
+            return false;
+        }
+
+        // user-pass = userid ":" password, where the user-id has no colon
+        int charCount = charBuffer.position();
+        int index = 0;
+        while (index < charCount && chars[index] != ':') {
+            index++;
+        }
+        if (index == charCount) {
+            return false;
+        }
+
+        colon = index;
+        userId.clear();
+        userId.limit(colon);
+        password.clear();
+        password.limit(charCount);
+        password.position(colon + 1);
+        return true;
+    }
+
+    /**
+     * Returns the user-id decoded last, as a view which is only valid until the next call to
+     * {@link #decode(CharSequence)} or {@link #clear()}.
+     *
+     * @return the user-id, not null
+     * @throws IllegalStateException if the last decode failed, or nothing is decoded
+     */
+    public CharSequence getUserId() {
+        checkDecoded();
+        return userId;
+    }
+
+    /**
+     * Returns the password decoded last, as a view which is only valid until the next call to
+     * {@link #decode(CharSequence)} or {@link #clear()}.
+     *
+     * @return the password, not null
+     * @throws IllegalStateException if the last decode failed, or nothing is decoded
+     */
+    public CharSequence getPassword() {
+        checkDecoded();
+        return password;
+    }
+
+    private void checkDecoded() {
+        if (colon < 0) {
+            throw new IllegalStateException("No credentials are decoded");
+        }
+    }
+
+    /**
+     * Erases the decoded bytes and chars, so that the password is no longer in memory.
+     */
+    public void clear() {
+        colon = -1;
+        Arrays.fill(bytes, (byte) 0);
+        Arrays.fill(chars, '\0');
+    }
+}
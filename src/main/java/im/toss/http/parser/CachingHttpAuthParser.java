@@ -0,0 +1,204 @@
+package im.toss.http.parser;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Parses credentials through a bounded cache keyed by the raw credentials.
+ *
+ * <p>Clients tend to send the same credentials, such as the same JWT or API key, over and over,
+ * and {@link HttpAuthCredentials} is immutable, so a parsed instance can be shared by every request
+ * sending the same header. The cache is a {@link SegmentedLruMap}, which evicts the least recently
+ * used credentials of a segment when it is full. Entries also expire a fixed time after they are
+ * parsed, if configured.
+ *
+ * <p>Only successfully parsed credentials are cached; in strict mode, credentials which fail to
+ * parse are parsed again and throw again on every call. In lenient mode, warnings are logged only
+ * when the credentials are actually parsed.
+ *
+ * <pre>{@code
+ * CachingHttpAuthParser parser = CachingHttpAuthParser.builder()
+ *                                                     .maximumSize(10_000)
+ *                                                     .expireAfterWrite(Duration.ofMinutes(10))
+ *                                                     .build();
+ * HttpAuthCredentials credentials = parser.parse(request.getHeader("Authorization"));
+ * }</pre>
+ */
+public final class CachingHttpAuthParser {
+
+    private final boolean strict;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final SegmentedLruMap<String, Entry> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private CachingHttpAuthParser(Builder builder) {
+        this.strict = builder.strict;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.ticker = builder.ticker;
+        this.cache = new SegmentedLruMap<>(builder.maximumSize, builder.concurrencyLevel);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the credentials parsed from the given credentials, from the cache if possible.
+     *
+     * @param credentials  the credentials to parse such as "Custom k1=v1, k2=v2", may be null
+     * @return HttpAuthCredentials, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if strict
+     * @see HttpAuthCredentials#parse(String, boolean)
+     */
+    public HttpAuthCredentials parse(String credentials) {
+        if (credentials == null) {
+            return HttpAuthCredentials.none();
+        }
+
+        long now = expireAfterWriteNanos > 0 ? ticker.getAsLong() : 0;
+
+        Entry entry = cache.get(credentials);
+        if (entry != null) {
+            if (expireAfterWriteNanos > 0 && now - entry.expiresAt >= 0) {
+                // Unless another thread has put a fresh entry meanwhile
+                cache.evict(credentials, entry);
+            } else {
+                hitCount.increment();
+                return entry.credentials;
+            }
+        }
+
+        missCount.increment();
+        HttpAuthCredentials parsed = HttpAuthCredentials.parse(credentials, strict);
+        cache.put(credentials, new Entry(parsed, now + expireAfterWriteNanos));
+        return parsed;
+    }
+
+    /**
+     * Discards every cached credentials.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of cached credentials, which may include expired ones.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the number of times the credentials were found in the cache.
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of times the credentials were parsed because they were not in the cache.
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of credentials discarded because the cache was full or they expired.
+     */
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    private static final class Entry {
+        final HttpAuthCredentials credentials;
+        final long expiresAt;
+
+        Entry(HttpAuthCredentials credentials, long expiresAt) {
+            this.credentials = credentials;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static final class Builder {
+
+        private int maximumSize = 10_000;
+        private long expireAfterWriteNanos;
+        private int concurrencyLevel = 16;
+        private boolean strict = true;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of cached credentials. 10,000 by default.
+         *
+         * @param maximumSize  the maximum number of cached credentials, positive
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets how long credentials stay in the cache after they are parsed. Forever by default.
+         *
+         * @param duration  the duration, positive, not null
+         * @return this builder
+         */
+        public Builder expireAfterWrite(Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive: " + duration);
+            }
+            this.expireAfterWriteNanos = duration.toNanos();
+            return this;
+        }
+
+        /**
+         * Sets the expected number of threads parsing at the same time, which decides the number
+         * of segments the cache is split into. 16 by default.
+         *
+         * @param concurrencyLevel  the expected number of threads, positive
+         * @return this builder
+         */
+        public Builder concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException(
+                        "concurrencyLevel must be positive: " + concurrencyLevel);
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * Sets whether to parse in strict mode. True by default.
+         *
+         * @param strict  For every parsing error, an exception is thrown if true, a warning
+         *                message is logged if false
+         * @return this builder
+         * @see HttpAuthCredentials#parse(String, boolean)
+         */
+        public Builder strict(boolean strict) {
+            this.strict = strict;
+            return this;
+        }
+
+        Builder ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+            return this;
+        }
+
+        public CachingHttpAuthParser build() {
+            return new CachingHttpAuthParser(this);
+        }
+    }
+}
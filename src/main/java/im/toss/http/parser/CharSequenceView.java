@@ -0,0 +1,49 @@
+package im.toss.http.parser;
+
+/**
+ * A reusable view of a region of a {@link CharSequence}, which is moved over the input instead of
+ * slicing a new string for every part.
+ */
+final class CharSequenceView implements CharSequence {
+
+    private final CharSequence input;
+    private int start;
+    private int end;
+
+    CharSequenceView(CharSequence input) {
+        this.input = input;
+    }
+
+    CharSequenceView moveTo(int start, int end) {
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+        }
+        return input.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > this.end - this.start || start > end) {
+            throw new IndexOutOfBoundsException(
+                    "start " + start + ", end " + end + ", length " + (this.end - this.start));
+        }
+        return input.subSequence(this.start + start, this.start + end);
+    }
+
+    @Override
+    public String toString() {
+        return input.subSequence(start, end).toString();
+    }
+}
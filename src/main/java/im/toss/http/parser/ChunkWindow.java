@@ -0,0 +1,147 @@
+package im.toss.http.parser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A window over an input which arrives in chunks, indexed from the start of the whole input.
+ *
+ * <p>Only the characters from the start of the window to the end of the last chunk are kept; the
+ * characters before the start are discarded, and must not be accessed. So a parser which moves the
+ * start past each part it has parsed keeps no more of the input than the part it is in. Bytes are
+ * read as ISO-8859-1 characters, as in {@link Latin1CharSequence}.
+ */
+final class ChunkWindow implements CharSequence {
+
+    private char[] chars;
+
+    // The index of chars[0] in the whole input
+    private int start;
+    private int end;
+
+    // The index before which the characters may be discarded
+    private int discardable;
+
+    ChunkWindow(int capacity) {
+        this.chars = new char[capacity];
+    }
+
+    private ChunkWindow(char[] chars, int start) {
+        this.chars = chars;
+        this.start = start;
+        this.end = start + chars.length;
+        this.discardable = start;
+    }
+
+    void append(CharSequence chunk) {
+        int length = chunk.length();
+        int offset = reserve(length);
+        for (int i = 0; i < length; i++) {
+            chars[offset + i] = chunk.charAt(i);
+        }
+        end += length;
+    }
+
+    void append(byte[] chunk, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > chunk.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset " + offset + ", length " + length + ", size " + chunk.length);
+        }
+        int to = reserve(length);
+        for (int i = 0; i < length; i++) {
+            chars[to + i] = (char) (chunk[offset + i] & 0xFF);
+        }
+        end += length;
+    }
+
+    /**
+     * Appends the remaining bytes of the given buffer, which are consumed.
+     */
+    void append(ByteBuffer chunk) {
+        int length = chunk.remaining();
+        if (chunk.hasArray()) {
+            append(chunk.array(), chunk.arrayOffset() + chunk.position(), length);
+        } else {
+            int to = reserve(length);
+            int position = chunk.position();
+            for (int i = 0; i < length; i++) {
+                chars[to + i] = (char) (chunk.get(position + i) & 0xFF);
+            }
+            end += length;
+        }
+        chunk.position(chunk.limit());
+    }
+
+    private int reserve(int length) {
+        if (end - start + length > chars.length) {
+            // Discarding only when the window is full, each character is moved a constant number
+            // of times on average.
+            int kept = end - discardable;
+            char[] target = kept + length > chars.length
+                            ? new char[Math.max(kept + length, chars.length * 2)]
+                            : chars;
+            System.arraycopy(chars, discardable - start, target, 0, kept);
+            chars = target;
+            start = discardable;
+        }
+        return end - start;
+    }
+
+    /**
+     * Allows the characters before the given index to be discarded.
+     *
+     * @param index  the index in the whole input, at most the length
+     */
+    void discardBefore(int index) {
+        discardable = Math.max(discardable, index);
+    }
+
+    /**
+     * Copies the given region into a window which no longer moves, indexed as this one is.
+     */
+    CharSequence freeze(int start, int end) {
+        return new ChunkWindow(Arrays.copyOfRange(chars, start - this.start, end - this.start),
+                               start);
+    }
+
+    void clear() {
+        start = 0;
+        end = 0;
+        discardable = 0;
+    }
+
+    /**
+     * Returns the length of the whole input so far.
+     */
+    @Override
+    public int length() {
+        return end;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < start || index >= end) {
+            throw new IndexOutOfBoundsException(
+                    "index " + index + ", window " + start + " to " + end);
+        }
+        return chars[index - start];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < this.start || end > this.end || start > end) {
+            throw new IndexOutOfBoundsException(
+                    "start " + start + ", end " + end + ", window " + this.start + " to "
+                    + this.end);
+        }
+        return new String(chars, start - this.start, end - start);
+    }
+
+    /**
+     * Returns the characters in the window, which are not the whole input if any is discarded.
+     */
+    @Override
+    public String toString() {
+        return new String(chars, 0, end - start);
+    }
+}
@@ -0,0 +1,38 @@
+package im.toss.http.parser;
+
+/**
+ * The auth-params of Digest credentials.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7616#section-3.4">Section 3.4 of RFC 7616</a>
+ */
+public enum DigestParam implements ParamSchema.Param {
+    USERNAME("username"),
+    USERNAME_EXT("username*"),
+    REALM("realm"),
+    URI("uri"),
+    RESPONSE("response"),
+    ALGORITHM("algorithm"),
+    CNONCE("cnonce"),
+    OPAQUE("opaque"),
+    QOP("qop"),
+    NC("nc"),
+    NONCE("nonce"),
+    USERHASH("userhash");
+
+    /**
+     * The schema of the Digest auth-scheme, registered by default.
+     */
+    public static final ParamSchema<DigestParam> SCHEMA =
+            ParamSchema.of("Digest", DigestParam.class);
+
+    private final String paramName;
+
+    DigestParam(String paramName) {
+        this.paramName = paramName;
+    }
+
+    @Override
+    public String paramName() {
+        return paramName;
+    }
+}
@@ -0,0 +1,200 @@
+package im.toss.http.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Parses many credentials at once, such as the Authorization headers of days of access logs.
+ *
+ * <p>Each credentials is parsed as {@link HttpAuthCredentials#tryParse(CharSequence, boolean)}
+ * does, so a malformed one yields its own error instead of failing the whole batch, and the
+ * errors tolerated in lenient mode are returned as warnings instead of being logged. The
+ * credentials are split into slices, and each slice is parsed by a single parser whose buffers and
+ * validators are shared by all of its credentials. If a {@link ForkJoinPool} is given, the slices
+ * are parsed in parallel in it.
+ *
+ * <pre>{@code
+ * HttpAuthBatchParser parser = HttpAuthBatchParser.builder()
+ *                                                 .pool(ForkJoinPool.commonPool())
+ *                                                 .build();
+ * List<ParseResult> results = parser.parse(headers);
+ * }</pre>
+ */
+public final class HttpAuthBatchParser {
+
+    private final boolean strict;
+    private final ForkJoinPool pool;
+    private final int sliceSize;
+
+    private HttpAuthBatchParser(Builder builder) {
+        this.strict = builder.strict;
+        this.pool = builder.pool;
+        this.sliceSize = builder.sliceSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parses the given credentials.
+     *
+     * @param credentials  the credentials to parse, not null, whose elements may be null
+     * @return the results in the order of the credentials, as an unmodifiable list, not null
+     */
+    public List<ParseResult> parse(List<? extends CharSequence> credentials) {
+        return parse(credentials.toArray(new CharSequence[0]));
+    }
+
+    /**
+     * Parses the given credentials, read from the stream a batch at a time as
+     * {@link #parseEach(Stream, Consumer)} does. The results of the whole stream are returned in
+     * a list, so a stream too long to keep the results of, such as the lines of days of logs,
+     * should be parsed with {@link #parseEach(Stream, Consumer)} instead.
+     *
+     * @param credentials  the credentials to parse, not null, whose elements may be null
+     * @return the results in the order of the credentials, as an unmodifiable list, not null
+     */
+    public List<ParseResult> parse(Stream<? extends CharSequence> credentials) {
+        List<ParseResult> results = new ArrayList<>();
+        parseEach(credentials, results::add);
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Parses the given credentials, passing each result to the given action in the order of the
+     * credentials. The stream is read a batch at a time, of one slice, or of one slice per thread
+     * of the pool if one is given, so that only the credentials and the results of one batch are
+     * held at a time, however long the stream is. The stream is not closed.
+     *
+     * @param credentials  the credentials to parse, not null, whose elements may be null
+     * @param action  the action receiving each result, not null
+     */
+    public void parseEach(Stream<? extends CharSequence> credentials,
+                          Consumer<? super ParseResult> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        long batchSize = pool == null ? sliceSize : (long) sliceSize * pool.getParallelism();
+        List<CharSequence> batch = new ArrayList<>();
+        Iterator<? extends CharSequence> iterator = credentials.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() >= batchSize || !iterator.hasNext()) {
+                parse(batch).forEach(action);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Parses the given credentials.
+     *
+     * @param credentials  the credentials to parse, not null, whose elements may be null
+     * @return the results in the order of the credentials, as an unmodifiable list, not null
+     */
+    public List<ParseResult> parse(CharSequence[] credentials) {
+        ParseResult[] results = new ParseResult[credentials.length];
+        if (pool == null || credentials.length <= sliceSize) {
+            parseSlice(credentials, results, 0, credentials.length);
+        } else {
+            pool.invoke(new SliceTask(credentials, results, 0, credentials.length));
+        }
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private void parseSlice(CharSequence[] credentials, ParseResult[] results, int from, int to) {
+        Rfc7235CredentialsParser parser = new Rfc7235CredentialsParser(strict);
+        for (int i = from; i < to; i++) {
+            results[i] = credentials[i] == null
+                         ? ParseResult.success(HttpAuthCredentials.none(), null)
+                         : parser.parseNext(credentials[i]);
+        }
+    }
+
+    private final class SliceTask extends RecursiveAction {
+
+        private final CharSequence[] credentials;
+        private final ParseResult[] results;
+        private final int from;
+        private final int to;
+
+        SliceTask(CharSequence[] credentials, ParseResult[] results, int from, int to) {
+            this.credentials = credentials;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sliceSize) {
+                parseSlice(credentials, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SliceTask(credentials, results, from, middle),
+                      new SliceTask(credentials, results, middle, to));
+        }
+    }
+
+    public static final class Builder {
+
+        private boolean strict = true;
+        private ForkJoinPool pool;
+        private int sliceSize = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets whether to parse in strict mode. True by default.
+         *
+         * @param strict  The parsing of a credentials fails on its first parsing error if true,
+         *                and fails only for an unclosed quoted string or quoted pair if false
+         * @return this builder
+         * @see HttpAuthCredentials#tryParse(CharSequence, boolean)
+         */
+        public Builder strict(boolean strict) {
+            this.strict = strict;
+            return this;
+        }
+
+        /**
+         * Sets the pool to parse the slices in parallel in. The credentials are parsed in the
+         * calling thread by default.
+         *
+         * @param pool  the pool, not null
+         * @return this builder
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "pool must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of credentials parsed by a single parser, and in a single task
+         * if parsed in parallel. 1,024 by default.
+         *
+         * @param sliceSize  the number of credentials, positive
+         * @return this builder
+         */
+        public Builder sliceSize(int sliceSize) {
+            if (sliceSize <= 0) {
+                throw new IllegalArgumentException("sliceSize must be positive: " + sliceSize);
+            }
+            this.sliceSize = sliceSize;
+            return this;
+        }
+
+        public HttpAuthBatchParser build() {
+            return new HttpAuthBatchParser(this);
+        }
+    }
+}
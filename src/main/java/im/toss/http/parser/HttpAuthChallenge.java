@@ -0,0 +1,227 @@
+package im.toss.http.parser;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An HTTP authentication challenge, as sent in a WWW-Authenticate or Proxy-Authenticate header.
+ *
+ * <p>A header may hold several challenges, so the challenges are parsed together by
+ * {@link #parseAll(String)}:
+ *
+ * <pre>{@code
+ * for (HttpAuthChallenge challenge : HttpAuthChallenge.parseAll(header)) {
+ *     if (challenge.getScheme().equalsIgnoreCase("Digest")) {
+ *         String realm = challenge.getFirstDecodedParam("realm");
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7235#section-2.1">Section 2.1 of RFC 7235</a>
+ */
+public final class HttpAuthChallenge {
+
+    // The parsed header which the scheme, the token and the params are sliced from on first
+    // access, or null if they are given on construction.
+    private final String source;
+    private final int schemeStart;
+    private final int schemeEnd;
+    private final int tokenStart;
+    private final int tokenEnd;
+    private final int[] paramRegions;
+
+    // The given scheme, token and params, or null if this challenge is parsed. Final, so that
+    // constructed challenges are safe to publish through a data race.
+    private final String scheme;
+    private final String token;
+    private final Map<String, List<String>> params;
+
+    // Racy single-check: each is computed at most once per thread, and always to an equal value.
+    private String parsedScheme;
+    private String parsedToken;
+    private Map<String, List<String>> parsedParams;
+    private Map<String, List<String>> decodedParams;
+
+    public HttpAuthChallenge(String scheme, String token, Map<String, List<String>> params) {
+        this.scheme = Objects.requireNonNull(scheme, "scheme must not be null");
+        this.token = Objects.requireNonNull(token, "token must not be null");
+        Objects.requireNonNull(params, "params must not be null");
+        // AuthParams is immutable already, and kept so that its names stay case-insensitive.
+        this.params = params instanceof AuthParams ? params : Collections.unmodifiableMap(params);
+        this.source = null;
+        this.schemeStart = 0;
+        this.schemeEnd = 0;
+        this.tokenStart = 0;
+        this.tokenEnd = 0;
+        this.paramRegions = null;
+    }
+
+    /**
+     * Creates a challenge which is materialized from the parsed header on first access.
+     *
+     * @param paramRegions  the start and end indexes of the key and the value of each
+     *                      auth-param, or null if there is no auth-param
+     */
+    HttpAuthChallenge(String source, int schemeStart, int schemeEnd, int tokenStart, int tokenEnd,
+                      int[] paramRegions) {
+        this.scheme = null;
+        this.token = null;
+        this.params = null;
+        this.source = source;
+        this.schemeStart = schemeStart;
+        this.schemeEnd = schemeEnd;
+        this.tokenStart = tokenStart;
+        this.tokenEnd = tokenEnd;
+        this.paramRegions = paramRegions;
+    }
+
+    /**
+     * Parses the challenges of a WWW-Authenticate or Proxy-Authenticate header in strict mode.
+     *
+     * @param challenges  the value of the header, not null
+     * @return the challenges in the order they appear, as an unmodifiable list, not null
+     * @throws HttpAuthCredentialParseException for every parsing error
+     * @throws Rfc7230ListParserException if the header has an unclosed quoted string or quoted
+     * pair
+     */
+    public static List<HttpAuthChallenge> parseAll(String challenges) {
+        return parseAll(challenges, true);
+    }
+
+    /**
+     * Parses the challenges of a WWW-Authenticate or Proxy-Authenticate header. The errors are the
+     * same as for credentials, and an element which does not follow any auth-scheme is a
+     * {@link ParseError.Kind#BAD_SCHEME}.
+     *
+     * @param challenges  the value of the header, not null
+     * @param strict  For every parsing error, an exception is thrown if true, a warning message is
+     *                logged if false
+     * @return the challenges in the order they appear, as an unmodifiable list, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @throws Rfc7230ListParserException if the header has an unclosed quoted string or quoted
+     * pair
+     */
+    public static List<HttpAuthChallenge> parseAll(CharSequence challenges, boolean strict) {
+        Objects.requireNonNull(challenges, "challenges must not be null");
+        return Rfc7235ChallengeParser.parse(challenges, strict);
+    }
+
+    static Map<String, List<String>> params(CharSequence input, int schemeStart, int schemeEnd,
+                                            int[] regions) {
+        if (regions == null) {
+            return Collections.emptyMap();
+        }
+        return AuthParams.of(input, regions, ParamSchema.forScheme(input, schemeStart, schemeEnd));
+    }
+
+    public String getScheme() {
+        if (source == null) {
+            return scheme;
+        }
+        String scheme = this.parsedScheme;
+        if (scheme == null) {
+            scheme = source.substring(schemeStart, schemeEnd);
+            this.parsedScheme = scheme;
+        }
+        return scheme;
+    }
+
+    /**
+     * Returns the token68.
+     *
+     * @return the token68, or an empty string if there is none
+     */
+    public String getToken() {
+        if (source == null) {
+            return token;
+        }
+        String token = this.parsedToken;
+        if (token == null) {
+            token = source.substring(tokenStart, tokenEnd);
+            this.parsedToken = token;
+        }
+        return token;
+    }
+
+    /**
+     * Returns the parameters.
+     *
+     * @return the parameters as an unmodifiable map that contains the mapping from keys to the
+     * values, case-insensitive for parsed challenges. The same map is returned on every call.
+     */
+    public Map<String, List<String>> getParams() {
+        if (source == null) {
+            return params;
+        }
+        Map<String, List<String>> params = this.parsedParams;
+        if (params == null) {
+            params = params(source, schemeStart, schemeEnd, paramRegions);
+            this.parsedParams = params;
+        }
+        return params;
+    }
+
+    /**
+     * Returns the first value of the given parameter, without creating any list for parsed
+     * challenges.
+     *
+     * @param name  the name of the parameter, case-insensitive for parsed challenges
+     * @return the first value, or null if there is no such parameter
+     */
+    public String getFirstParam(String name) {
+        return SingleValueParams.first(getParams(), name);
+    }
+
+    /**
+     * Returns the parameters with their values decoded, as
+     * {@link HttpAuthCredentials#getDecodedParams()} does.
+     *
+     * @return the decoded parameters as an unmodifiable map. The same map is returned on every
+     * call.
+     */
+    public Map<String, List<String>> getDecodedParams() {
+        Map<String, List<String>> decodedParams = this.decodedParams;
+        if (decodedParams == null) {
+            decodedParams = HttpAuthCredentials.decode(getParams());
+            this.decodedParams = decodedParams;
+        }
+        return decodedParams;
+    }
+
+    /**
+     * Returns the decoded first value of the given parameter, such as the realm.
+     *
+     * @param name  the name of the parameter, case-insensitive for parsed challenges
+     * @return the decoded first value, or null if there is no such parameter
+     * @see #getDecodedParams()
+     */
+    public String getFirstDecodedParam(String name) {
+        return SingleValueParams.first(getDecodedParams(), name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HttpAuthChallenge that = (HttpAuthChallenge) o;
+        return getScheme().equals(that.getScheme()) && getToken().equals(that.getToken())
+               && getParams().equals(that.getParams());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getScheme(), getToken(), getParams());
+    }
+
+    @Override
+    public String toString() {
+        return "HttpAuthChallenge{" + "scheme='" + getScheme() + '\'' + ", token='" + getToken()
+               + '\'' + ", params=" + getParams() + '}';
+    }
+}
@@ -1,20 +1,13 @@
 package im.toss.http.parser;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
-import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_QUOTED_STRING;
-import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_TOKEN;
-import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7235_TOKEN68;
 import static java.util.Collections.singletonList;
 
 /**
@@ -25,14 +18,41 @@ import static java.util.Collections.singletonList;
  */
 public class HttpAuthCredentials {
 
-    private static final Logger log = LoggerFactory.getLogger(HttpAuthCredentials.class);
+    private static volatile ParseErrorListener parseErrorListener =
+            new LoggingParseErrorListener();
+
+    private static volatile ParseMetrics parseMetrics = ParseMetrics.NONE;
 
+    // The parsed credentials which the scheme, the token and the params are sliced from on first
+    // access, or null if they are given on construction.
+    private final String source;
+    private final int schemeEnd;
+    private final int tokenStart;
+    private final int tokenEnd;
+    private final int[] paramRegions;
+
+    // The given scheme, token and params, or null if these credentials are parsed. Final, so that
+    // constructed credentials are safe to publish through a data race.
     private final String scheme;
     private final String token;
-
-    // value must be neither null nor empty.
+    // value must be neither null nor empty. Read-only, and safe to publish through a data race.
     private final Map<String, List<String>> params;
 
+    // Racy single-check: each is computed at most once per thread, and always to an equal value.
+    private String parsedScheme;
+    private String parsedToken;
+    private Map<String, List<String>> parsedParams;
+    private Map<String, String> singleValueParams;
+    private Map<String, List<String>> decodedParams;
+    private SchemaParams<?> schemaParams;
+
+    // The bytes cached by HttpAuthCredentialsFormatter. Volatile, unlike the fields above, as the
+    // contents of an array are not safe to publish through a data race.
+    volatile byte[] formatted;
+
+    // 0 until computed, as String#hash
+    private int hash;
+
     public HttpAuthCredentials(String scheme, String token) {
         this(scheme, token, Collections.emptyMap());
     }
@@ -40,7 +60,36 @@ public class HttpAuthCredentials {
     public HttpAuthCredentials(String scheme, String token, Map<String, List<String>> params) {
         this.scheme = Objects.requireNonNull(scheme, "scheme must not be null");
         this.token = Objects.requireNonNull(token,  "token must not be null");
-        this.params = Objects.requireNonNull(params,  "params must not be null");
+        Objects.requireNonNull(params,  "params must not be null");
+        // AuthParams is immutable already, and kept so that its names stay case-insensitive.
+        this.params = params instanceof AuthParams ? params : Collections.unmodifiableMap(params);
+        this.source = null;
+        this.schemeEnd = 0;
+        this.tokenStart = 0;
+        this.tokenEnd = 0;
+        this.paramRegions = null;
+    }
+
+    /**
+     * Creates credentials which are materialized from the parsed source on first access.
+     *
+     * @param source  the parsed credentials
+     * @param schemeEnd  the end index of the scheme
+     * @param tokenStart  the start index of the token68
+     * @param tokenEnd  the end index of the token68
+     * @param paramRegions  the start and end indexes of the key and the value of each
+     *                      auth-param, or null if there is no auth-param
+     */
+    HttpAuthCredentials(String source, int schemeEnd, int tokenStart, int tokenEnd,
+                        int[] paramRegions) {
+        this.scheme = null;
+        this.token = null;
+        this.params = null;
+        this.source = source;
+        this.schemeEnd = schemeEnd;
+        this.tokenStart = tokenStart;
+        this.tokenEnd = tokenEnd;
+        this.paramRegions = paramRegions;
     }
 
     /**
@@ -60,7 +109,9 @@ public class HttpAuthCredentials {
                 params.entrySet()
                       .stream()
                       .collect(Collectors.toMap(Map.Entry::getKey,
-                                                e -> singletonList(e.getValue())));
+                                                e -> singletonList(e.getValue()),
+                                                (a, b) -> a,
+                                                LinkedHashMap::new));
 
         return new HttpAuthCredentials(scheme, token, multiValuesParams);
     }
@@ -75,83 +126,147 @@ public class HttpAuthCredentials {
      *
      * @param credentials  the credentials to parse such as "Custom k1=v1, k2=v2", not null
      * @param strict  For every parsing error, an exception is thrown if true, a warning
-     *                message is logged if false
+     *                message is logged if false. Warnings are logged at a limited rate unless
+     *                another listener is set by {@link #setParseErrorListener(ParseErrorListener)}.
      * @return HttpAuthCredentials, not null
      * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
      */
     public static HttpAuthCredentials parse(String credentials, boolean strict) {
-        // credentials = auth-scheme [ 1*SP ( token68 / #auth-param ) ]
+        if (credentials == null) {
+            return HttpAuthCredentials.none();
+        }
+
+        return Rfc7235CredentialsParser.parse(credentials, strict);
+    }
 
+    /**
+     * Obtains an instance of {@code HttpAuthCredentials} from credentials in a
+     * {@link CharSequence} such as Netty's {@code AsciiString}, without converting the whole
+     * credentials into a {@link String}.
+     *
+     * @param credentials  the credentials to parse such as "Custom k1=v1, k2=v2", may be null
+     * @param strict  For every parsing error, an exception is thrown if true, a warning
+     *                message is logged if false
+     * @return HttpAuthCredentials, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @see #parse(String, boolean)
+     */
+    public static HttpAuthCredentials parse(CharSequence credentials, boolean strict) {
         if (credentials == null) {
             return HttpAuthCredentials.none();
         }
 
-        List<String> parts = Arrays.asList(credentials.split("\\s+", 2));
-        String authScheme = parts.get(0);
-        String remains = parts.size() >= 2 ? parts.get(1) : "";
+        return Rfc7235CredentialsParser.parse(credentials, strict);
+    }
 
-        TokenValidatorFactory tokenValidatorFactory = new TokenValidatorFactory();
-        TokenValidator tokenValidator = tokenValidatorFactory.create(RFC7230_TOKEN);
-        TokenValidator quotedStringValidator = tokenValidatorFactory.create(RFC7230_QUOTED_STRING);
-        TokenValidator token68Validator = tokenValidatorFactory.create(RFC7235_TOKEN68);
+    /**
+     * Obtains an instance of {@code HttpAuthCredentials} from credentials in bytes, which are
+     * decoded as ISO-8859-1 as RFC 7230 specifies for header field values. The bytes are neither
+     * copied nor decoded as a whole; only the scheme, the token and the params are.
+     *
+     * @param credentials  the bytes containing the credentials, not null
+     * @param offset  the index of the first byte of the credentials
+     * @param length  the number of bytes of the credentials
+     * @param strict  For every parsing error, an exception is thrown if true, a warning
+     *                message is logged if false
+     * @return HttpAuthCredentials, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @throws IndexOutOfBoundsException if the offset and the length are out of the bounds
+     * @see #parse(String, boolean)
+     */
+    public static HttpAuthCredentials parseBytes(byte[] credentials, int offset, int length,
+                                                 boolean strict) {
+        return Rfc7235CredentialsParser.parse(Latin1CharSequence.of(credentials, offset, length),
+                                              strict);
+    }
 
-        Map<String, List<String>> parameterValueByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        String token = "";
+    /**
+     * Obtains an instance of {@code HttpAuthCredentials} from the remaining bytes of the given
+     * buffer, which are decoded as ISO-8859-1 as RFC 7230 specifies for header field values. The
+     * position of the buffer is not changed.
+     *
+     * @param credentials  the buffer containing the credentials, not null
+     * @param strict  For every parsing error, an exception is thrown if true, a warning
+     *                message is logged if false
+     * @return HttpAuthCredentials, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @see #parse(String, boolean)
+     */
+    public static HttpAuthCredentials parseBytes(ByteBuffer credentials, boolean strict) {
+        return Rfc7235CredentialsParser.parse(Latin1CharSequence.of(credentials), strict);
+    }
 
-        Rfc7230ListParser parser = Rfc7230ListParser.parse(remains);
-        for(String value : parser.values()) {
-            KvPair pair = KvPair.parse(value);
-            if (pair.getKey().isEmpty() || pair.getValue().isEmpty()) {
-                if (token.isEmpty()) {
-                    token = value;
-                } else {
-                    handleError(strict, "Multiple token68 is not allowed");
-                }
-            } else {
-                try {
-                    tokenValidator.validate(pair.getKey());
-                    if (pair.getValue().startsWith("\"")) {
-                        quotedStringValidator.validate(pair.getValue());
-                    } else {
-                        tokenValidator.validate(pair.getValue());
-                    }
-                } catch (Exception e) {
-                    handleError(strict, "Bad parameter: " + value, e);
-                }
-                addParameter(parameterValueByName, pair);
-            }
+    /**
+     * Parses credentials such as {@code Custom k1=v1, k2=v2}, passing the scheme, the token68 and
+     * each param to the given visitor as they are parsed instead of building
+     * {@code HttpAuthCredentials}. Parsing stops as soon as the visitor returns false, and the
+     * rest of the credentials is not even validated.
+     *
+     * @param credentials  the credentials to parse such as "Custom k1=v1, k2=v2", may be null, in
+     *                     which case nothing is passed to the visitor
+     * @param strict  For every parsing error, an exception is thrown if true, a warning
+     *                message is logged if false. In strict mode, nothing is passed to the visitor
+     *                after the first parsing error.
+     * @param visitor  the visitor, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @see #parse(String, boolean)
+     */
+    public static void parse(CharSequence credentials, boolean strict,
+                             HttpAuthCredentialsVisitor visitor) {
+        Objects.requireNonNull(visitor, "visitor must not be null");
+        if (credentials == null) {
+            return;
         }
 
-        try {
-            token68Validator.validate(token);
-        } catch (Exception e) {
-            handleError(strict, "Bad token: " + token, e);
+        Rfc7235CredentialsParser.parse(credentials, strict, visitor);
+    }
+
+    /**
+     * Parses credentials such as {@code Custom k1=v1, k2=v2} without throwing any exception for a
+     * parsing error. No exception is created either, so a malformed input costs about as much as
+     * a well-formed one. In lenient mode, the tolerated errors are returned as warnings instead of
+     * being logged.
+     *
+     * @param credentials  the credentials to parse such as "Custom k1=v1, k2=v2", may be null
+     * @param strict  The parsing fails on the first parsing error if true, and fails only for an
+     *                unclosed quoted string or quoted pair if false
+     * @return ParseResult, not null
+     * @see #parse(String, boolean)
+     */
+    public static ParseResult tryParse(CharSequence credentials, boolean strict) {
+        if (credentials == null) {
+            return ParseResult.success(HttpAuthCredentials.none(), null);
         }
 
-        return new HttpAuthCredentials(authScheme, token, parameterValueByName);
+        return Rfc7235CredentialsParser.tryParse(credentials, strict);
     }
 
-    private static void addParameter(Map<String, List<String>> parameterValueByName, KvPair pair) {
-        List<String> values = parameterValueByName.get(pair.getKey());
-        if (values == null) {
-            values = new ArrayList<>();
-        }
-        values.add(pair.getValue());
-        parameterValueByName.put(pair.getKey(), values);
+    /**
+     * Sets the listener which receives the parsing errors tolerated in lenient mode, instead of
+     * a {@link LoggingParseErrorListener} logging up to 10 errors a minute.
+     *
+     * @param listener  the listener, not null
+     */
+    public static void setParseErrorListener(ParseErrorListener listener) {
+        parseErrorListener = Objects.requireNonNull(listener, "listener must not be null");
     }
 
-    private static void handleError(boolean strict, String message) {
-        if (strict) {
-            throw new HttpAuthCredentialParseException(message);
-        }
-        log.warn(message);
+    /**
+     * Sets the metrics which record every parse into credentials, instead of
+     * {@link ParseMetrics#NONE}. See {@link ParseMetrics} for the parses which are recorded.
+     *
+     * @param metrics  the metrics, not null
+     */
+    public static void setParseMetrics(ParseMetrics metrics) {
+        parseMetrics = Objects.requireNonNull(metrics, "metrics must not be null");
     }
 
-    private static void handleError(boolean strict, String message, Exception e) {
-        if (strict) {
-            throw new HttpAuthCredentialParseException(message, e);
-        }
-        log.warn(message);
+    static ParseMetrics parseMetrics() {
+        return parseMetrics;
+    }
+
+    static void warn(ParseError error) {
+        parseErrorListener.onError(error);
     }
 
     /**
@@ -164,10 +279,26 @@ public class HttpAuthCredentials {
     }
 
     public String getScheme() {
+        if (source == null) {
+            return scheme;
+        }
+        String scheme = this.parsedScheme;
+        if (scheme == null) {
+            scheme = source.substring(0, schemeEnd);
+            this.parsedScheme = scheme;
+        }
         return scheme;
     }
 
     public String getToken() {
+        if (source == null) {
+            return token;
+        }
+        String token = this.parsedToken;
+        if (token == null) {
+            token = source.substring(tokenStart, tokenEnd);
+            this.parsedToken = token;
+        }
         return token;
     }
 
@@ -175,24 +306,128 @@ public class HttpAuthCredentials {
      * Returns the parameters.
      *
      * @return the parameters as an unmodifiable map that contains the mapping from keys to the
-     * values.
+     * values. The same map is returned on every call.
      */
     public Map<String, List<String>> getParams() {
-        return Collections.unmodifiableMap(params);
+        if (source == null) {
+            return params;
+        }
+        Map<String, List<String>> params = this.parsedParams;
+        if (params == null) {
+            params = Rfc7235CredentialsParser.params(source, schemeEnd, paramRegions);
+            this.parsedParams = params;
+        }
+        return params;
     }
 
     /**
      * Returns the parameters in single value representation.
      *
      * @return the parameters as an unmodifiable map that contains the mapping from keys to the
-     * first values.
+     * first values. The map is a view of {@link #getParams()}, and the same map is returned on
+     * every call.
      */
     public Map<String, String> getSingleValueParams() {
-        return Collections.unmodifiableMap(
-                getParams().entrySet()
-                           .stream()
-                           .collect(Collectors.toMap(Map.Entry::getKey,
-                                                     e -> e.getValue().get(0))));
+        Map<String, String> singleValueParams = this.singleValueParams;
+        if (singleValueParams == null) {
+            singleValueParams = new SingleValueParams(getParams());
+            this.singleValueParams = singleValueParams;
+        }
+        return singleValueParams;
+    }
+
+    /**
+     * Returns the first value of the given parameter, without creating any map or list for
+     * parsed credentials.
+     *
+     * @param name  the name of the parameter, case-insensitive for parsed credentials
+     * @return the first value, or null if there is no such parameter
+     */
+    public String getFirstParam(String name) {
+        return SingleValueParams.first(getParams(), name);
+    }
+
+    /**
+     * Returns the parameters with their values decoded: the surrounding DQUOTEs of a quoted
+     * string are removed and its quoted-pairs are unescaped, so that {@code k="a \"b\""} has the
+     * value {@code a "b"}. A token, or a malformed quoted string tolerated in lenient mode, is
+     * left as it is. The values are decoded once, on the first call.
+     *
+     * @return the decoded parameters as an unmodifiable map that contains the mapping from keys to
+     * the decoded values. The same map is returned on every call.
+     */
+    public Map<String, List<String>> getDecodedParams() {
+        Map<String, List<String>> decodedParams = this.decodedParams;
+        if (decodedParams == null) {
+            decodedParams = decode(getParams());
+            this.decodedParams = decodedParams;
+        }
+        return decodedParams;
+    }
+
+    /**
+     * Returns the decoded first value of the given parameter.
+     *
+     * @param name  the name of the parameter, case-insensitive for parsed credentials
+     * @return the decoded first value, or null if there is no such parameter
+     * @see #getDecodedParams()
+     */
+    public String getFirstDecodedParam(String name) {
+        return SingleValueParams.first(getDecodedParams(), name);
+    }
+
+    static Map<String, List<String>> decode(Map<String, List<String>> params) {
+        if (params instanceof AuthParams) {
+            return ((AuthParams) params).decoded();
+        }
+        Map<String, List<String>> decoded = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            List<String> values = entry.getValue()
+                                       .stream()
+                                       .map(QuotedStrings::unquote)
+                                       .collect(Collectors.toList());
+            decoded.put(entry.getKey(), Collections.unmodifiableList(values));
+        }
+        return Collections.unmodifiableMap(decoded);
+    }
+
+    /**
+     * Returns the parameters whose names are in the given schema, if these credentials are of the
+     * auth-scheme of the schema. For parsed credentials, the names are matched in the parsed input,
+     * so neither {@link #getParams()} nor any name is created. The parameters of the last schema
+     * given are kept, and returned again for the same schema.
+     *
+     * @param schema  the schema, not null
+     * @param <P>  the enum of the params of the schema
+     * @return the parameters, or null if the auth-scheme is not the one of the schema,
+     * case-insensitively
+     */
+    @SuppressWarnings("unchecked")
+    public <P extends Enum<P> & ParamSchema.Param> SchemaParams<P> getParams(
+            ParamSchema<P> schema) {
+        SchemaParams<?> schemaParams = this.schemaParams;
+        if (schemaParams != null && schemaParams.getSchema() == schema) {
+            return (SchemaParams<P>) schemaParams;
+        }
+        if (!schema.getScheme().equalsIgnoreCase(getScheme())) {
+            return null;
+        }
+        SchemaParams<P> params = source != null && parsedParams == null
+                                 ? SchemaParams.of(schema, source, paramRegions)
+                                 : SchemaParams.of(schema, getParams());
+        this.schemaParams = params;
+        return params;
+    }
+
+    /**
+     * Returns the values of the given parameter.
+     *
+     * @param name  the name of the parameter, case-insensitive for parsed credentials
+     * @return the values as an unmodifiable list, empty if there is no such parameter
+     */
+    public List<String> getParamValues(String name) {
+        List<String> values = getParams().get(name);
+        return values == null ? Collections.emptyList() : values;
     }
 
     @Override
@@ -204,18 +439,31 @@ public class HttpAuthCredentials {
             return false;
         }
         HttpAuthCredentials that = (HttpAuthCredentials) o;
-        return Objects.equals(scheme, that.scheme) && Objects.equals(token, that.token)
-               && Objects.equals(params, that.params);
+        if (hash != 0 && that.hash != 0 && hash != that.hash) {
+            return false;
+        }
+        return getScheme().equals(that.getScheme()) && getToken().equals(that.getToken())
+               && getParams().equals(that.getParams());
     }
 
+    /**
+     * Returns the hash code, which is computed on the first call and kept, so the params must not
+     * change afterwards, as they do not unless they are constructed with a map which is then
+     * modified.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(scheme, token, params);
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = Objects.hash(getScheme(), getToken(), getParams());
+            this.hash = hash;
+        }
+        return hash;
     }
 
     @Override
     public String toString() {
-        return "HttpAuthCredentials{" + "scheme='" + scheme + '\'' + ", token='" + token + '\''
-               + ", params=" + params + '}';
+        return "HttpAuthCredentials{" + "scheme='" + getScheme() + '\'' + ", token='" + getToken()
+               + '\'' + ", params=" + getParams() + '}';
     }
 }
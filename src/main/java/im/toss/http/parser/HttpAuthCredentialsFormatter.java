@@ -0,0 +1,418 @@
+package im.toss.http.parser;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static im.toss.http.parser.CharClasses.QDTEXT;
+import static im.toss.http.parser.CharClasses.QUOTED_PAIR_TEXT;
+import static im.toss.http.parser.CharClasses.TCHAR;
+import static im.toss.http.parser.Constants.DQUOTE;
+import static im.toss.http.parser.Constants.SP;
+
+/**
+ * Formats credentials into the value of an Authorization or Proxy-Authorization header, such as
+ * {@code Custom token68, k1=v1, k2="v 2"}.
+ *
+ * <p>The auth-scheme and the token68 are written as they are, the token68 only if it is valid as
+ * parsed, and the params in the order of {@link HttpAuthCredentials#getParams()}, one name and
+ * value for each value of a param. A value is written as it is if it is a token, or a quoted string
+ * as parsed credentials keep it, and is quoted otherwise, escaping its DQUOTEs and backslashes.
+ * Parsing the formatted credentials gives back the same scheme, token68 and
+ * {@link HttpAuthCredentials#getDecodedParams() decoded params}, but a value which is quoted comes
+ * back quoted in {@link HttpAuthCredentials#getParams()}: {@code v 2} as {@code "v 2"}. Parsed
+ * credentials, whose values are already tokens or quoted strings, come back equal. The exact size
+ * is computed before anything is written, and the bytes are ISO-8859-1, as RFC 7230 specifies for
+ * header field values.
+ *
+ * <p>If {@link Builder#cacheBytes(boolean)} is set, the bytes are kept on the credentials the first
+ * time they are formatted into bytes, and copied from there on every later call, which suits a
+ * client sending the same credentials with every request.
+ *
+ * <pre>{@code
+ * HttpAuthCredentialsFormatter formatter = HttpAuthCredentialsFormatter.builder()
+ *                                                                      .cacheBytes(true)
+ *                                                                      .build();
+ * int written = formatter.write(credentials, buffer);
+ * }</pre>
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7235#section-2.1">Section 2.1 of RFC 7235</a>
+ */
+public final class HttpAuthCredentialsFormatter {
+
+    private static final HttpAuthCredentialsFormatter DEFAULT = builder().build();
+
+    private static final Rfc7235Token68Validator TOKEN68_VALIDATOR = new Rfc7235Token68Validator();
+
+    private final boolean cacheBytes;
+
+    private HttpAuthCredentialsFormatter(Builder builder) {
+        this.cacheBytes = builder.cacheBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a formatter which does not cache the bytes.
+     */
+    public static HttpAuthCredentialsFormatter getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the number of characters, and of bytes, the given credentials are formatted into.
+     *
+     * @param credentials  the credentials, not null
+     * @return the length of the formatted credentials
+     * @throws IllegalArgumentException if the credentials cannot be formatted into a header value
+     */
+    public int length(HttpAuthCredentials credentials) {
+        byte[] cached = credentials.formatted;
+        if (cached != null) {
+            return cached.length;
+        }
+
+        String scheme = credentials.getScheme();
+        String token = credentials.getToken();
+        Map<String, List<String>> params = credentials.getParams();
+        if (scheme.isEmpty() && token.isEmpty() && params.isEmpty()) {
+            // HttpAuthCredentials.none()
+            return 0;
+        }
+        checkToken("scheme", scheme);
+
+        int length = scheme.length();
+        if (!token.isEmpty()) {
+            checkToken68(token);
+            length += 1 + token.length();
+        }
+        boolean first = token.isEmpty();
+        for (Map.Entry<String, List<String>> param : params.entrySet()) {
+            String name = param.getKey();
+            checkToken("param name", name);
+            for (String value : param.getValue()) {
+                // ", " or " ", name, "=" and value
+                length += (first ? 1 : 2) + name.length() + 1 + valueLength(value);
+                first = false;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Formats the given credentials into a string.
+     *
+     * @param credentials  the credentials, not null
+     * @return the formatted credentials, not null
+     * @throws IllegalArgumentException if the credentials cannot be formatted into a header value
+     */
+    public String format(HttpAuthCredentials credentials) {
+        StringBuilder target = new StringBuilder(length(credentials));
+        render(credentials, new StringBuilderOutput(target));
+        return target.toString();
+    }
+
+    /**
+     * Appends the formatted credentials to the given builder, which grows at most once.
+     *
+     * @param credentials  the credentials, not null
+     * @param target  the builder, not null
+     * @return the given builder
+     * @throws IllegalArgumentException if the credentials cannot be formatted into a header value
+     */
+    public StringBuilder formatTo(HttpAuthCredentials credentials, StringBuilder target) {
+        target.ensureCapacity(target.length() + length(credentials));
+        render(credentials, new StringBuilderOutput(target));
+        return target;
+    }
+
+    /**
+     * Formats the given credentials into a new array of ISO-8859-1 bytes.
+     *
+     * @param credentials  the credentials, not null
+     * @return the bytes, which are not shared with the cache, not null
+     * @throws IllegalArgumentException if the credentials cannot be formatted into a header value
+     */
+    public byte[] toBytes(HttpAuthCredentials credentials) {
+        return bytes(credentials, true);
+    }
+
+    /**
+     * Formats the given credentials into the given array as ISO-8859-1 bytes.
+     *
+     * @param credentials  the credentials, not null
+     * @param target  the array, not null
+     * @param offset  the index at which the first byte is written
+     * @return the number of bytes written, which is {@link #length(HttpAuthCredentials)}
+     * @throws IllegalArgumentException if the credentials cannot be formatted into a header value
+     * @throws IndexOutOfBoundsException if the bytes do not fit in the array, in which case
+     * nothing is written
+     */
+    public int write(HttpAuthCredentials credentials, byte[] target, int offset) {
+        byte[] cached = cachedBytes(credentials);
+        if (cached != null) {
+            System.arraycopy(cached, 0, target, offset, cached.length);
+            return cached.length;
+        }
+
+        int length = length(credentials);
+        if (offset < 0 || offset > target.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset " + offset + ", length " + length + ", size " + target.length);
+        }
+        render(credentials, new ByteArrayOutput(target, offset));
+        return length;
+    }
+
+    /**
+     * Formats the given credentials into the given buffer as ISO-8859-1 bytes, at its position,
+     * which is moved past them.
+     *
+     * @param credentials  the credentials, not null
+     * @param target  the buffer, not null
+     * @return the number of bytes written, which is {@link #length(HttpAuthCredentials)}
+     * @throws IllegalArgumentException if the credentials cannot be formatted into a header value
+     * @throws BufferOverflowException if the bytes do not fit in the remaining bytes of
+     * the buffer, in which case nothing is written
+     */
+    public int write(HttpAuthCredentials credentials, ByteBuffer target) {
+        byte[] cached = cachedBytes(credentials);
+        if (cached != null) {
+            target.put(cached);
+            return cached.length;
+        }
+
+        if (target.hasArray()) {
+            int length = length(credentials);
+            if (length > target.remaining()) {
+                throw new BufferOverflowException();
+            }
+            render(credentials,
+                   new ByteArrayOutput(target.array(), target.arrayOffset() + target.position()));
+            target.position(target.position() + length);
+            return length;
+        }
+        byte[] bytes = bytes(credentials, false);
+        target.put(bytes);
+        return bytes.length;
+    }
+
+    private byte[] cachedBytes(HttpAuthCredentials credentials) {
+        return cacheBytes ? bytes(credentials, false) : credentials.formatted;
+    }
+
+    /**
+     * Returns the bytes of the given credentials, cached if configured.
+     *
+     * @param copy  whether the bytes must not be shared with the cache
+     */
+    private byte[] bytes(HttpAuthCredentials credentials, boolean copy) {
+        byte[] bytes = credentials.formatted;
+        if (bytes == null) {
+            bytes = new byte[length(credentials)];
+            render(credentials, new ByteArrayOutput(bytes, 0));
+            if (!cacheBytes) {
+                return bytes;
+            }
+            credentials.formatted = bytes;
+        }
+        return copy ? bytes.clone() : bytes;
+    }
+
+    private static void render(HttpAuthCredentials credentials, Output output) {
+        String scheme = credentials.getScheme();
+        String token = credentials.getToken();
+
+        output.put(scheme);
+        if (!token.isEmpty()) {
+            output.put(SP);
+            output.put(token);
+        }
+        boolean first = token.isEmpty();
+        for (Map.Entry<String, List<String>> param : credentials.getParams().entrySet()) {
+            String name = param.getKey();
+            for (String value : param.getValue()) {
+                if (!first) {
+                    output.put(',');
+                }
+                output.put(SP);
+                output.put(name);
+                output.put('=');
+                if (valueLength(value) == value.length()) {
+                    output.put(value);
+                } else {
+                    putQuoted(output, value);
+                }
+                first = false;
+            }
+        }
+    }
+
+    private static void putQuoted(Output output, String value) {
+        output.put(DQUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == DQUOTE || ch == '\\') {
+                output.put('\\');
+            }
+            output.put(ch);
+        }
+        output.put(DQUOTE);
+    }
+
+    /**
+     * Returns the length of the given value as it is written: its own length if it is a token or
+     * a quoted string, and the length of it quoted otherwise.
+     */
+    private static int valueLength(String value) {
+        int length = value.length();
+        if (length > 0 && CharClasses.indexOfNot(value, 0, length, TCHAR) == length) {
+            return length;
+        }
+        if (isQuotedString(value)) {
+            return length;
+        }
+
+        // quoted-string = DQUOTE *( qdtext / quoted-pair ) DQUOTE
+        int quoted = length + 2;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch == DQUOTE || ch == '\\') {
+                quoted++;
+            } else if (!CharClasses.is(ch, QDTEXT)) {
+                throw new IllegalArgumentException(
+                        "Cannot quote the character at " + i + " of a param value: " + value);
+            }
+        }
+        return quoted;
+    }
+
+    /**
+     * Tests whether the given value is a quoted string, as {@link Rfc7230QuotedStringValidator}
+     * does, on a {@link String} as every value is tested twice.
+     */
+    private static boolean isQuotedString(String value) {
+        int last = value.length() - 1;
+        if (last < 1 || value.charAt(0) != DQUOTE || value.charAt(last) != DQUOTE) {
+            return false;
+        }
+        for (int i = 1; i < last; i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\') {
+                if (++i == last || !CharClasses.is(value.charAt(i), QUOTED_PAIR_TEXT)) {
+                    return false;
+                }
+            } else if (!CharClasses.is(ch, QDTEXT)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkToken(String part, String value) {
+        if (value.isEmpty() || CharClasses.indexOfNot(value, 0, value.length(), TCHAR)
+                               != value.length()) {
+            throw new IllegalArgumentException("The " + part + " is not a token: " + value);
+        }
+    }
+
+    private static void checkToken68(String token) {
+        // As parsed, so that a token68 such as "a=b" is not parsed back as a param
+        if (TOKEN68_VALIDATOR.indexOfError(token, 0, token.length()) >= 0) {
+            throw new IllegalArgumentException("Bad token68: " + token);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HttpAuthCredentialsFormatter{" + "cacheBytes=" + cacheBytes + '}';
+    }
+
+    /**
+     * Where the formatted characters go. The characters are checked to be at most 0xFF before
+     * anything is written.
+     */
+    private abstract static class Output {
+
+        abstract void put(char ch);
+
+        void put(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                put(value.charAt(i));
+            }
+        }
+    }
+
+    private static final class StringBuilderOutput extends Output {
+
+        private final StringBuilder target;
+
+        StringBuilderOutput(StringBuilder target) {
+            this.target = target;
+        }
+
+        @Override
+        void put(char ch) {
+            target.append(ch);
+        }
+
+        @Override
+        void put(String value) {
+            target.append(value);
+        }
+    }
+
+    private static final class ByteArrayOutput extends Output {
+
+        private final byte[] target;
+        private int position;
+
+        ByteArrayOutput(byte[] target, int position) {
+            this.target = target;
+            this.position = position;
+        }
+
+        @Override
+        void put(char ch) {
+            target[position++] = (byte) ch;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        void put(String value) {
+            // The low byte of each character, which is its ISO-8859-1 byte as it is at most 0xFF
+            value.getBytes(0, value.length(), target, position);
+            position += value.length();
+        }
+    }
+
+    public static final class Builder {
+
+        private boolean cacheBytes;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets whether the bytes of credentials are kept on the credentials once they are
+         * formatted, and reused for every later call with the same instance. False by default.
+         *
+         * <p>The credentials must not change afterwards, which they do not unless they are
+         * constructed with a map of params which is then modified.
+         *
+         * @param cacheBytes  whether the bytes are cached
+         * @return this builder
+         */
+        public Builder cacheBytes(boolean cacheBytes) {
+            this.cacheBytes = cacheBytes;
+            return this;
+        }
+
+        public HttpAuthCredentialsFormatter build() {
+            return new HttpAuthCredentialsFormatter(this);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package im.toss.http.parser;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonicalizes equal credentials to one instance, through a bounded pool.
+ *
+ * <p>Credentials used as keys of session or rate-limit maps are compared on every request, and
+ * each request parses its own equal copy of them, with its own token and params. Once interned,
+ * equal credentials are the same instance, so {@code equals} returns on the identity check, the
+ * hash code is computed once, and only the strings of the canonical instance are retained. The
+ * pool is a {@link SegmentedLruMap}, as the cache of {@link CachingHttpAuthParser} is, which
+ * evicts the least recently used credentials of a segment when it is full; an evicted instance
+ * stays valid, but equal credentials interned afterwards get another one.
+ *
+ * <pre>{@code
+ * HttpAuthCredentialsInterner interner = HttpAuthCredentialsInterner.builder()
+ *                                                                   .maximumSize(10_000)
+ *                                                                   .build();
+ * HttpAuthCredentials credentials = interner.intern(HttpAuthCredentials.parse(header));
+ * }</pre>
+ */
+public final class HttpAuthCredentialsInterner {
+
+    private final SegmentedLruMap<HttpAuthCredentials, HttpAuthCredentials> pool;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private HttpAuthCredentialsInterner(Builder builder) {
+        this.pool = new SegmentedLruMap<>(builder.maximumSize, builder.concurrencyLevel);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the canonical instance of the given credentials, which becomes the canonical
+     * instance itself if there is none yet.
+     *
+     * @param credentials  the credentials, may be null
+     * @return the canonical instance equal to the given credentials, or null if null is given
+     */
+    public HttpAuthCredentials intern(HttpAuthCredentials credentials) {
+        if (credentials == null) {
+            return null;
+        }
+
+        HttpAuthCredentials canonical = pool.putIfAbsent(credentials, credentials);
+        if (canonical == null) {
+            missCount.increment();
+            return credentials;
+        }
+        hitCount.increment();
+        return canonical;
+    }
+
+    /**
+     * Discards every canonical instance.
+     */
+    public void clear() {
+        pool.clear();
+    }
+
+    /**
+     * Returns the number of canonical instances.
+     */
+    public long size() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the number of times equal credentials were already interned.
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of times the given credentials became the canonical instance.
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public static final class Builder {
+
+        private int maximumSize = 10_000;
+        private int concurrencyLevel = 16;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of canonical instances. 10,000 by default.
+         *
+         * @param maximumSize  the maximum number of canonical instances, positive
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the expected number of threads interning at the same time, which decides the
+         * number of segments the pool is split into. 16 by default.
+         *
+         * @param concurrencyLevel  the expected number of threads, positive
+         * @return this builder
+         */
+        public Builder concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException(
+                        "concurrencyLevel must be positive: " + concurrencyLevel);
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        public HttpAuthCredentialsInterner build() {
+            return new HttpAuthCredentialsInterner(this);
+        }
+    }
+}
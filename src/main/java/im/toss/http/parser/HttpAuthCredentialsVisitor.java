@@ -0,0 +1,81 @@
+package im.toss.http.parser;
+
+/**
+ * Receives the parts of credentials as they are parsed, so that a caller needing only a few of
+ * them does not have to build {@link HttpAuthCredentials} with all of its params.
+ *
+ * <p>The parts are passed as views of the parsed credentials which are valid only until the
+ * method returns; call {@link CharSequence#toString()} to keep one. Each method returns whether
+ * to continue parsing, and parsing stops as soon as one returns false. Names are case-insensitive,
+ * and can be compared with {@link #nameEquals(CharSequence, String)} without creating any string.
+ *
+ * <pre>{@code
+ * HttpAuthCredentials.parse(header, true, new HttpAuthCredentialsVisitor() {
+ *     public boolean onParam(CharSequence name, CharSequence value) {
+ *         if (HttpAuthCredentialsVisitor.nameEquals(name, "realm")) {
+ *             realm = value.toString();
+ *             return false;
+ *         }
+ *         return true;
+ *     }
+ * });
+ * }</pre>
+ *
+ * @see HttpAuthCredentials#parse(CharSequence, boolean, HttpAuthCredentialsVisitor)
+ */
+public interface HttpAuthCredentialsVisitor {
+
+    /**
+     * Receives the auth-scheme, which is the first part of the credentials.
+     *
+     * @param scheme  the auth-scheme, possibly empty
+     * @return true to continue parsing
+     */
+    default boolean onScheme(CharSequence scheme) {
+        return true;
+    }
+
+    /**
+     * Receives the token68.
+     *
+     * @param token68  the token68, not empty
+     * @return true to continue parsing
+     */
+    default boolean onToken68(CharSequence token68) {
+        return true;
+    }
+
+    /**
+     * Receives an auth-param, in the order of the credentials.
+     *
+     * @param name  the name of the param, not empty
+     * @param value  the value of the param as it is in the credentials, not empty
+     * @return true to continue parsing
+     */
+    default boolean onParam(CharSequence name, CharSequence value) {
+        return true;
+    }
+
+    /**
+     * Tests whether the given name of a param is the expected one, ignoring case as
+     * {@link HttpAuthCredentials#getParams()} does.
+     *
+     * @param name  the name received, not null
+     * @param expected  the expected name, not null
+     * @return true if the names are equal ignoring case
+     */
+    static boolean nameEquals(CharSequence name, String expected) {
+        if (name.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            char a = name.charAt(i);
+            char b = expected.charAt(i);
+            if (a != b && Character.toLowerCase(Character.toUpperCase(a))
+                          != Character.toLowerCase(Character.toUpperCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
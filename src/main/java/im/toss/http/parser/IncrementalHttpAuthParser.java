@@ -0,0 +1,220 @@
+package im.toss.http.parser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static im.toss.http.parser.CharClasses.WHITESPACE;
+
+/**
+ * Parses credentials which arrive in chunks, such as a header split across network buffers,
+ * without gathering them into a whole.
+ *
+ * <p>Each chunk is parsed as soon as it is fed, and the state of the parsing, including whether it
+ * is in a quoted string or a quoted pair, is kept until the next chunk. Only the part of the
+ * credentials which is not parsed yet is kept, that is the auth-scheme until it ends, then the
+ * current element of the list. The results are the same as
+ * {@link HttpAuthCredentials#tryParse(CharSequence, boolean)} for the whole credentials, except
+ * that nothing is recorded by {@link ParseMetrics}. Bytes are read as ISO-8859-1.
+ *
+ * <p>A parser parses one credentials at a time, and can be reused once it is finished or reset.
+ * It must not be used by more than one thread at a time.
+ *
+ * <pre>{@code
+ * IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(true);
+ * parser.feed(firstBuffer);
+ * parser.feed(secondBuffer);
+ * ParseResult result = parser.finish();
+ * }</pre>
+ */
+public final class IncrementalHttpAuthParser {
+
+    private enum State { SCHEME, SPACE, LIST }
+
+    private final boolean strict;
+    private final ChunkWindow window;
+    private final Collector collector;
+    private final Rfc7235CredentialsParser parser;
+
+    private State state;
+
+    // The index up to which the window is parsed
+    private int parsed;
+
+    /**
+     * Creates a parser.
+     *
+     * @param strict  The parsing fails on the first parsing error if true, and fails only for an
+     *                unclosed quoted string or quoted pair if false
+     */
+    public IncrementalHttpAuthParser(boolean strict) {
+        this.strict = strict;
+        this.window = new ChunkWindow(256);
+        this.collector = new Collector();
+        this.parser = new Rfc7235CredentialsParser(window, strict, collector);
+        reset();
+    }
+
+    /**
+     * Parses the given chunk of the credentials.
+     *
+     * @param chunk  the chunk, not null
+     * @return this parser
+     */
+    public IncrementalHttpAuthParser feed(CharSequence chunk) {
+        window.append(chunk);
+        return parse();
+    }
+
+    /**
+     * Parses the given chunk of the credentials, as ISO-8859-1.
+     *
+     * @param chunk  the bytes, not null
+     * @param offset  the index of the first byte of the chunk
+     * @param length  the number of bytes of the chunk
+     * @return this parser
+     */
+    public IncrementalHttpAuthParser feed(byte[] chunk, int offset, int length) {
+        window.append(chunk, offset, length);
+        return parse();
+    }
+
+    /**
+     * Parses the remaining bytes of the given buffer as a chunk of the credentials, as ISO-8859-1.
+     * The position of the buffer is moved to its limit.
+     *
+     * @param chunk  the buffer, not null
+     * @return this parser
+     */
+    public IncrementalHttpAuthParser feed(ByteBuffer chunk) {
+        window.append(chunk);
+        return parse();
+    }
+
+    private IncrementalHttpAuthParser parse() {
+        int end = window.length();
+        int i = parsed;
+
+        if (state == State.SCHEME) {
+            while (i < end && !CharClasses.is(window.charAt(i), WHITESPACE)) {
+                i++;
+            }
+            if (i == end) {
+                parsed = end;
+                return this;
+            }
+            collector.scheme = window.subSequence(0, i).toString();
+            state = State.SPACE;
+        }
+
+        if (state == State.SPACE) {
+            while (i < end && CharClasses.is(window.charAt(i), WHITESPACE)) {
+                i++;
+            }
+            window.discardBefore(i);
+            if (i == end) {
+                parsed = end;
+                return this;
+            }
+            parser.startList(i);
+            state = State.LIST;
+        }
+
+        parser.feedList(i, end);
+        window.discardBefore(parser.elementStart());
+        parsed = end;
+        return this;
+    }
+
+    /**
+     * Ends the credentials fed so far, and resets this parser for the next credentials.
+     *
+     * @return the result of the whole credentials, not null
+     */
+    public ParseResult finish() {
+        int end = window.length();
+        if (state == State.SCHEME) {
+            collector.scheme = window.subSequence(0, end).toString();
+        }
+        if (state != State.LIST) {
+            parser.startList(end);
+        }
+
+        ParseError error = parser.endList(end);
+        ParseResult result = error != null
+                             ? ParseResult.failure(error)
+                             : ParseResult.success(collector.credentials(), parser.errors());
+        reset();
+        return result;
+    }
+
+    /**
+     * Discards the credentials fed so far.
+     */
+    public void reset() {
+        window.clear();
+        parser.reset(window);
+        collector.reset();
+        state = State.SCHEME;
+        parsed = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalHttpAuthParser{" + "strict=" + strict + ", state=" + state
+               + ", parsed=" + parsed + '}';
+    }
+
+    /**
+     * Copies the parts out of the window as soon as they are parsed, as the window moves on.
+     */
+    private static final class Collector implements HttpAuthCredentialsVisitor {
+
+        private String scheme;
+        private String token;
+
+        // The names and the values, one after another, which the regions index
+        private final StringBuilder params = new StringBuilder();
+        private int[] regions = new int[4 * 4];
+        private int paramCount;
+
+        @Override
+        public boolean onToken68(CharSequence value) {
+            token = value.toString();
+            return true;
+        }
+
+        @Override
+        public boolean onParam(CharSequence name, CharSequence value) {
+            if (paramCount * 4 == regions.length) {
+                regions = Arrays.copyOf(regions, regions.length * 2);
+            }
+            int i = paramCount++ * 4;
+            regions[i] = params.length();
+            params.append(name);
+            regions[i + 1] = params.length();
+            regions[i + 2] = params.length();
+            params.append(value);
+            regions[i + 3] = params.length();
+            return true;
+        }
+
+        HttpAuthCredentials credentials() {
+            Map<String, List<String>> map =
+                    paramCount == 0
+                    ? Collections.emptyMap()
+                    : AuthParams.of(params, Arrays.copyOf(regions, paramCount * 4),
+                                    ParamSchema.forScheme(scheme));
+            return new HttpAuthCredentials(scheme, token == null ? "" : token, map);
+        }
+
+        void reset() {
+            scheme = null;
+            token = null;
+            params.setLength(0);
+            paramCount = 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package im.toss.http.parser;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * A view of bytes as ISO-8859-1 characters, as header field values are treated by RFC 7230.
+ *
+ * <p>The bytes are not copied, so they must not be modified while the view is in use. Only
+ * {@link #toString()} decodes them into a {@link String}.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7230#section-3.2.4">Section 3.2.4 of RFC 7230</a>
+ */
+final class Latin1CharSequence implements CharSequence {
+
+    // Exactly one of array and buffer is non-null.
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private Latin1CharSequence(byte[] array, ByteBuffer buffer, int offset, int length) {
+        this.array = array;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    static Latin1CharSequence of(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset " + offset + ", length " + length + ", size " + bytes.length);
+        }
+        return new Latin1CharSequence(bytes, null, offset, length);
+    }
+
+    /**
+     * Creates a view of the remaining bytes of the given buffer. The position of the buffer is not
+     * changed.
+     */
+    static Latin1CharSequence of(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new Latin1CharSequence(buffer.array(), null,
+                                          buffer.arrayOffset() + buffer.position(),
+                                          buffer.remaining());
+        }
+        return new Latin1CharSequence(null, buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Creates a view of the given region of the buffer, regardless of its position and limit.
+     */
+    static Latin1CharSequence of(ByteBuffer buffer, int index, int length) {
+        if (index < 0 || length < 0 || index > buffer.capacity() - length) {
+            throw new IndexOutOfBoundsException(
+                    "index " + index + ", length " + length + ", capacity " + buffer.capacity());
+        }
+        if (buffer.hasArray()) {
+            return new Latin1CharSequence(buffer.array(), null, buffer.arrayOffset() + index,
+                                          length);
+        }
+        return new Latin1CharSequence(null, buffer, index, length);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        if (array != null) {
+            return (char) (array[offset + index] & 0xFF);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    /**
+     * Returns the index of the first character in the given region which does not belong to the
+     * given class, reading the array directly if the bytes are in one.
+     *
+     * @param classes  a single class such as {@code TCHAR}
+     * @see CharClasses#indexOfNot(CharSequence, int, int, int)
+     */
+    int indexOfNot(int start, int end, int classes) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(
+                    "start " + start + ", end " + end + ", length " + length);
+        }
+        if (array == null) {
+            return CharClasses.scalarIndexOfNot(this, start, end, classes);
+        }
+        return CharClasses.indexOfNot(array, offset + start, offset + end, classes) - offset;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(
+                    "start " + start + ", end " + end + ", length " + length);
+        }
+        return new Latin1CharSequence(array, buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        if (array != null) {
+            return new String(array, offset, length, ISO_8859_1);
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, ISO_8859_1);
+    }
+}
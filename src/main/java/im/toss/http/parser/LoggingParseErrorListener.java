@@ -0,0 +1,140 @@
+package im.toss.http.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts the parsing errors by kind, and logs them as warnings at a limited rate.
+ *
+ * <p>Up to a fixed number of errors are logged one by one in each interval, and the rest are only
+ * counted. The first error after the interval is over logs a summary of the errors suppressed in
+ * it, so a burst of malformed credentials costs a few log messages rather than one per error. No
+ * message is built if WARN is disabled for the logger of {@link HttpAuthCredentials}, which is the
+ * logger warnings have always been logged with.
+ *
+ * <p>This is the default {@link ParseErrorListener}, which logs up to 10 errors a minute.
+ */
+public final class LoggingParseErrorListener implements ParseErrorListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpAuthCredentials.class);
+
+    private static final ParseError.Kind[] KINDS = ParseError.Kind.values();
+
+    private final long intervalNanos;
+    private final int maxMessagesPerInterval;
+    private final LongSupplier ticker;
+
+    private final LongAdder[] counts = newCounters();
+    private final LongAdder[] suppressedCounts = newCounters();
+    private final AtomicLong intervalStart;
+    private final AtomicInteger messageCount = new AtomicInteger();
+
+    public LoggingParseErrorListener() {
+        this(Duration.ofMinutes(1), 10);
+    }
+
+    /**
+     * Creates a listener which logs up to the given number of errors in each interval.
+     *
+     * @param interval  the interval, positive, not null
+     * @param maxMessagesPerInterval  the number of errors logged one by one in each interval, not
+     *                                negative
+     */
+    public LoggingParseErrorListener(Duration interval, int maxMessagesPerInterval) {
+        this(interval, maxMessagesPerInterval, System::nanoTime);
+    }
+
+    LoggingParseErrorListener(Duration interval, int maxMessagesPerInterval, LongSupplier ticker) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        if (maxMessagesPerInterval < 0) {
+            throw new IllegalArgumentException(
+                    "maxMessagesPerInterval must not be negative: " + maxMessagesPerInterval);
+        }
+        this.intervalNanos = interval.toNanos();
+        this.maxMessagesPerInterval = maxMessagesPerInterval;
+        this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+        this.intervalStart = new AtomicLong(ticker.getAsLong());
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[KINDS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    @Override
+    public void onError(ParseError error) {
+        int kind = error.getKind().ordinal();
+        counts[kind].increment();
+
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+
+        long now = ticker.getAsLong();
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            // Only the thread which starts the new interval reports the previous one.
+            messageCount.set(0);
+            logSuppressed(now - start);
+        }
+
+        if (messageCount.incrementAndGet() <= maxMessagesPerInterval) {
+            log.warn(error.getMessage());
+        } else {
+            suppressedCounts[kind].increment();
+        }
+    }
+
+    private void logSuppressed(long elapsedNanos) {
+        Map<ParseError.Kind, Long> suppressed = new EnumMap<>(ParseError.Kind.class);
+        long total = 0;
+        for (ParseError.Kind kind : KINDS) {
+            long count = suppressedCounts[kind.ordinal()].sumThenReset();
+            if (count > 0) {
+                suppressed.put(kind, count);
+                total += count;
+            }
+        }
+        if (total > 0) {
+            log.warn("{} parsing errors were not logged in the last {}: {}",
+                     total, Duration.ofNanos(elapsedNanos), suppressed);
+        }
+    }
+
+    /**
+     * Returns the number of errors of the given kind received so far, whether logged or not.
+     *
+     * @param kind  the kind of errors, not null
+     * @return the number of errors
+     */
+    public long getCount(ParseError.Kind kind) {
+        return counts[kind.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of errors received so far by kind, whether logged or not.
+     *
+     * @return the numbers of errors, including zeros, not null
+     */
+    public Map<ParseError.Kind, Long> getCounts() {
+        Map<ParseError.Kind, Long> counts = new EnumMap<>(ParseError.Kind.class);
+        for (ParseError.Kind kind : KINDS) {
+            counts.put(kind, getCount(kind));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,119 @@
+package im.toss.http.parser;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Counts names case-insensitively, looking a name up without creating a string for it, so that
+ * counting a name seen before does not allocate. The spelling a name is first seen in is kept.
+ *
+ * <p>Names are counted as pending until {@link #commit()} adds them to the counts, or
+ * {@link #rollback()} discards them, so that the names of a header which fails to parse half way
+ * are not counted.
+ *
+ * <p>Not thread-safe.
+ */
+final class NameCounts {
+
+    private String[] names = new String[16];
+    private int[] hashes = new int[16];
+    private long[] counts = new long[16];
+    private long[] pendingCounts = new long[16];
+    private int size;
+
+    // The slots with a pending count
+    private int[] pendingSlots = new int[8];
+    private int pendingSize;
+
+    void increment(CharSequence name) {
+        // Folded as the names of AuthParams are, so that both agree on which names are equal
+        int hash = AuthParams.hash(name, 0, name.length());
+        int mask = names.length - 1;
+        int slot = hash & mask;
+        while (names[slot] != null) {
+            if (hashes[slot] == hash
+                && AuthParams.equalsIgnoreCase(names[slot], name, 0, name.length())) {
+                addPending(slot);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        names[slot] = name.toString();
+        hashes[slot] = hash;
+        addPending(slot);
+        if (++size * 2 > names.length) {
+            grow();
+        }
+    }
+
+    private void addPending(int slot) {
+        if (pendingCounts[slot]++ == 0) {
+            if (pendingSize == pendingSlots.length) {
+                pendingSlots = Arrays.copyOf(pendingSlots, pendingSize * 2);
+            }
+            pendingSlots[pendingSize++] = slot;
+        }
+    }
+
+    /**
+     * Adds the names counted since the last commit or rollback to the counts.
+     */
+    void commit() {
+        for (int i = 0; i < pendingSize; i++) {
+            int slot = pendingSlots[i];
+            counts[slot] += pendingCounts[slot];
+            pendingCounts[slot] = 0;
+        }
+        pendingSize = 0;
+    }
+
+    /**
+     * Discards the names counted since the last commit or rollback. A name seen for the first
+     * time stays, with no count.
+     */
+    void rollback() {
+        for (int i = 0; i < pendingSize; i++) {
+            pendingCounts[pendingSlots[i]] = 0;
+        }
+        pendingSize = 0;
+    }
+
+    /**
+     * Adds the committed counts to the given map, which should be case-insensitive.
+     */
+    void addTo(Map<String, Long> map) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null && counts[i] > 0) {
+                map.merge(names[i], counts[i], Long::sum);
+            }
+        }
+    }
+
+    private void grow() {
+        String[] oldNames = names;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+        long[] oldPendingCounts = pendingCounts;
+        names = new String[oldNames.length * 2];
+        hashes = new int[oldNames.length * 2];
+        counts = new long[oldNames.length * 2];
+        pendingCounts = new long[oldNames.length * 2];
+        pendingSize = 0;
+        int mask = names.length - 1;
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = oldNames[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+                if (oldPendingCounts[i] > 0) {
+                    pendingCounts[slot] = oldPendingCounts[i] - 1;
+                    addPending(slot);
+                }
+            }
+        }
+    }
+}
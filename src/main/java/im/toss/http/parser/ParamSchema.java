@@ -0,0 +1,205 @@
+package im.toss.http.parser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The known auth-param names of an auth-scheme, such as the params of Digest, each of which is
+ * mapped to a constant of an enum.
+ *
+ * <p>The names are hashed once, when the schema is created, so a name in the parsed input is
+ * matched against the schema in place, without creating a string. The params of credentials are
+ * obtained by {@link HttpAuthCredentials#getParams(ParamSchema)} as {@link SchemaParams}, which
+ * keeps the values in an array indexed by the ordinals of the enum.
+ *
+ * <p>Schemas are registered by auth-scheme, and a registered schema also lends its names to the
+ * parsed params: a name which is exactly the same as the one in the schema is not copied from the
+ * input. {@link DigestParam#SCHEMA} is registered by default.
+ *
+ * <pre>{@code
+ * SchemaParams<DigestParam> params = credentials.getParams(DigestParam.SCHEMA);
+ * if (params != null) {
+ *     String nonce = params.getDecoded(DigestParam.NONCE);
+ * }
+ * }</pre>
+ *
+ * @param <P>  the enum of the params
+ */
+public final class ParamSchema<P extends Enum<P> & ParamSchema.Param> {
+
+    /**
+     * A param of a schema, implemented by the constants of an enum.
+     */
+    public interface Param {
+
+        /**
+         * Returns the name of the param, as it is registered for its auth-scheme.
+         *
+         * @return the name, a token, not null
+         */
+        String paramName();
+    }
+
+    private final String scheme;
+    private final List<P> params;
+    private final String[] names;
+    private final int[] hashes;
+    private final int[] table;
+
+    private ParamSchema(String scheme, P[] params) {
+        this.scheme = scheme;
+        this.params = Collections.unmodifiableList(Arrays.asList(params));
+        this.names = new String[params.length];
+        this.hashes = new int[params.length];
+        this.table = AuthParams.table(params.length);
+        for (P param : params) {
+            String name = param.paramName();
+            if (!isToken(name)) {
+                throw new IllegalArgumentException("paramName must be a token: " + name);
+            }
+            // The constants are in the order of their ordinals, so the previous ones are set.
+            int index = param.ordinal();
+            int hash = AuthParams.hash(name, 0, name.length());
+            if (AuthParams.indexOf(names, hashes, table, index, hash, name, 0, name.length())
+                >= 0) {
+                throw new IllegalArgumentException("Duplicate paramName: " + name);
+            }
+            names[index] = name.intern();
+            hashes[index] = hash;
+            if (table != null) {
+                AuthParams.putInTable(table, hash, index);
+            }
+        }
+    }
+
+    /**
+     * Creates a schema of the given auth-scheme, whose params are the constants of the given enum.
+     *
+     * @param scheme  the auth-scheme, a token, not null
+     * @param type  the enum of the params, whose names are distinct case-insensitively, not null
+     * @param <P>  the enum of the params
+     * @return the schema, not null
+     * @throws IllegalArgumentException if the scheme or a name of a param is not a token, or the
+     * names are not distinct
+     */
+    public static <P extends Enum<P> & Param> ParamSchema<P> of(String scheme, Class<P> type) {
+        if (!isToken(scheme)) {
+            throw new IllegalArgumentException("scheme must be a token: " + scheme);
+        }
+        return new ParamSchema<>(scheme, type.getEnumConstants());
+    }
+
+    private static boolean isToken(String value) {
+        return !value.isEmpty()
+               && CharClasses.indexOfNot(value, 0, value.length(), CharClasses.TCHAR)
+                  == value.length();
+    }
+
+    /**
+     * Registers the given schema for its auth-scheme, replacing the one registered before, if any.
+     *
+     * @param schema  the schema, not null
+     */
+    public static synchronized void register(ParamSchema<?> schema) {
+        Objects.requireNonNull(schema, "schema must not be null");
+        ParamSchema<?>[] schemas = Registry.schemas;
+        ParamSchema<?>[] copy = Arrays.copyOf(schemas, schemas.length + 1);
+        copy[schemas.length] = schema;
+        for (int i = 0; i < schemas.length; i++) {
+            if (schemas[i].scheme.equalsIgnoreCase(schema.scheme)) {
+                copy = schemas.clone();
+                copy[i] = schema;
+                break;
+            }
+        }
+        Registry.schemas = copy;
+    }
+
+    /**
+     * Returns the schema registered for the given auth-scheme.
+     *
+     * @param scheme  the auth-scheme, case-insensitive, not null
+     * @return the schema, or null if none is registered for the auth-scheme
+     */
+    public static ParamSchema<?> forScheme(CharSequence scheme) {
+        return forScheme(scheme, 0, scheme.length());
+    }
+
+    static ParamSchema<?> forScheme(CharSequence input, int start, int end) {
+        for (ParamSchema<?> schema : Registry.schemas) {
+            if (AuthParams.equalsIgnoreCase(schema.scheme, input, start, end)) {
+                return schema;
+            }
+        }
+        return null;
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Returns the params of this schema.
+     *
+     * @return the params in the order of their ordinals, as an unmodifiable list, not null
+     */
+    public List<P> getParams() {
+        return params;
+    }
+
+    /**
+     * Returns the param of the given name.
+     *
+     * @param name  the name of the param, case-insensitive, not null
+     * @return the param, or null if the name is not in this schema
+     */
+    public P param(CharSequence name) {
+        int index = indexOf(name, 0, name.length(), AuthParams.hash(name, 0, name.length()));
+        return index < 0 ? null : params.get(index);
+    }
+
+    /**
+     * Returns the ordinal of the param whose name is the given region of the input.
+     *
+     * @param hash  the hash of the region by {@link AuthParams#hash(CharSequence, int, int)}
+     * @return the ordinal, or -1 if the name is not in this schema
+     */
+    int indexOf(CharSequence input, int start, int end, int hash) {
+        return AuthParams.indexOf(names, hashes, table, params.size(), hash, input, start, end);
+    }
+
+    /**
+     * Returns the name of this schema which is exactly the same as the given region of the input,
+     * case included.
+     *
+     * @param hash  the hash of the region by {@link AuthParams#hash(CharSequence, int, int)}
+     * @return the interned name, or null if the name is not in this schema as it is
+     */
+    String nameOf(CharSequence input, int start, int end, int hash) {
+        int index = indexOf(input, start, end, hash);
+        if (index < 0) {
+            return null;
+        }
+        String name = names[index];
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != input.charAt(start + i)) {
+                return null;
+            }
+        }
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "ParamSchema{" + "scheme='" + scheme + '\'' + ", params=" + params + '}';
+    }
+
+    private static final class Registry {
+
+        // Copied on write, so that a lookup is a plain array scan. Initialized apart from the
+        // schema class, which DigestParam needs to initialize its own schema.
+        static volatile ParamSchema<?>[] schemas = {DigestParam.SCHEMA};
+    }
+}
@@ -0,0 +1,119 @@
+package im.toss.http.parser;
+
+/**
+ * An error found while parsing credentials, described by its kind and where it is in the input.
+ *
+ * <p>Unlike {@link HttpAuthCredentialParseException}, an error has no stack trace and no message
+ * until {@link #getMessage()} is called, so reporting one costs a single small object. The message
+ * is built from the parsed input on demand, so if the input was mutable, such as a
+ * {@link StringBuilder}, it must not be modified before the message is obtained.
+ *
+ * @see ParseResult
+ */
+public final class ParseError {
+
+    public enum Kind {
+        /** The token68 has a character which is not allowed. */
+        BAD_TOKEN,
+        /** The key or the value of an auth-param has a character which is not allowed. */
+        BAD_PARAMETER,
+        /** There is more than one token68. */
+        MULTIPLE_TOKEN68,
+        /** A quoted string is not closed. */
+        UNCLOSED_QUOTED_STRING,
+        /** A quoted pair is not closed. */
+        UNCLOSED_QUOTED_PAIR,
+        /** An element of a challenge list does not follow an auth-scheme. Only for challenges. */
+        BAD_SCHEME
+    }
+
+    private final Kind kind;
+    private final CharSequence input;
+    private final int start;
+    private final int end;
+    private final int position;
+
+    ParseError(Kind kind, CharSequence input, int start, int end, int position) {
+        this.kind = kind;
+        this.input = input;
+        this.start = start;
+        this.end = end;
+        this.position = position;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the index of the character where the error was found. For an unclosed quoted string
+     * or quoted pair, it is the length of the input.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the start index of the offending token68, auth-param or element, inclusive. For an
+     * unclosed quoted string or quoted pair, it is the start index of the list after the
+     * auth-scheme.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end index of the offending token68, auth-param or element, exclusive. For an
+     * unclosed quoted string or quoted pair, it is the end index of the list after the
+     * auth-scheme.
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    String region() {
+        return input.subSequence(start, end).toString();
+    }
+
+    /**
+     * Returns the message of the error, which is the same as the message of the exception thrown
+     * in strict mode.
+     *
+     * @return the message, not null
+     */
+    public String getMessage() {
+        switch (kind) {
+            case BAD_TOKEN:
+                return "Bad token: " + region();
+            case BAD_PARAMETER:
+                return "Bad parameter: " + region();
+            case MULTIPLE_TOKEN68:
+                return "Multiple token68 is not allowed";
+            case UNCLOSED_QUOTED_STRING:
+                return "Unclosed quoted string";
+            case UNCLOSED_QUOTED_PAIR:
+                return "Unclosed quoted pair";
+            case BAD_SCHEME:
+                return "Bad scheme: " + region();
+            default:
+                throw new AssertionError(kind);
+        }
+    }
+
+    /**
+     * Creates the exception which is thrown for this error in strict mode, so that a caller of
+     * {@link HttpAuthCredentials#tryParse(CharSequence, boolean)} can throw it without parsing
+     * again.
+     *
+     * @return an {@link Rfc7230ListParserException} for an unclosed quoted string or quoted pair,
+     * otherwise an {@link HttpAuthCredentialParseException}, not null
+     */
+    public RuntimeException exception() {
+        return Rfc7235CredentialsParser.exception(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ParseError{" + "kind=" + kind + ", position=" + position + '}';
+    }
+}
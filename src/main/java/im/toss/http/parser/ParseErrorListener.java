@@ -0,0 +1,16 @@
+package im.toss.http.parser;
+
+/**
+ * Receives the parsing errors tolerated in lenient mode.
+ *
+ * <p>A listener is called on the parsing thread, for every error, so it should be quick and must
+ * not throw. The input of the error may be a view of bytes which are reused after the parsing, so
+ * the message of the error must be obtained, if ever, before the listener returns.
+ *
+ * @see HttpAuthCredentials#setParseErrorListener(ParseErrorListener)
+ * @see LoggingParseErrorListener
+ */
+@FunctionalInterface
+public interface ParseErrorListener {
+    void onError(ParseError error);
+}
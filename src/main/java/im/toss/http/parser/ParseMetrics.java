@@ -0,0 +1,36 @@
+package im.toss.http.parser;
+
+/**
+ * Receives the outcome of every parse into {@link HttpAuthCredentials}, to instrument parsing
+ * with counters per scheme and per error kind, a histogram of credentials lengths and the parse
+ * latency.
+ *
+ * <p>It is called on the parsing thread after every parse of non-null credentials by
+ * {@code HttpAuthCredentials.parse}, {@link HttpAuthCredentials#tryParse(CharSequence, boolean)}
+ * and {@link HttpAuthBatchParser}, in strict or lenient mode, whether the parse succeeds, fails or
+ * throws. It is not called by the parse which passes the parts to an
+ * {@link HttpAuthCredentialsVisitor}, by {@link IncrementalHttpAuthParser}, nor for challenges,
+ * as none of them produces a {@link ParseResult} for the whole credentials. The credentials may be
+ * a view of bytes which are reused after the parsing, so they must be read, if ever, before this
+ * returns. By default, {@link #NONE} is used and parsing is not even timed.
+ *
+ * @see HttpAuthCredentials#setParseMetrics(ParseMetrics)
+ */
+@FunctionalInterface
+public interface ParseMetrics {
+
+    /**
+     * Records nothing.
+     */
+    ParseMetrics NONE = (credentials, result, nanos) -> { };
+
+    /**
+     * Records a parse.
+     *
+     * @param credentials  the parsed credentials, not null
+     * @param result  the result, which has the parsing error if the parse failed or threw, and
+     *                the errors tolerated in lenient mode, not null
+     * @param nanos  the time the parse took in nanoseconds
+     */
+    void onParse(CharSequence credentials, ParseResult result, long nanos);
+}
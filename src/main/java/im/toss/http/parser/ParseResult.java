@@ -0,0 +1,82 @@
+package im.toss.http.parser;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of parsing credentials without throwing: either the parsed credentials or the error
+ * which made the parsing fail.
+ *
+ * <pre>{@code
+ * ParseResult result = HttpAuthCredentials.tryParse(request.getHeader("Authorization"), true);
+ * if (!result.isSuccess()) {
+ *     return badRequest(result.getError().getKind());
+ * }
+ * HttpAuthCredentials credentials = result.getCredentials();
+ * }</pre>
+ *
+ * @see HttpAuthCredentials#tryParse(CharSequence, boolean)
+ */
+public final class ParseResult {
+
+    private final HttpAuthCredentials credentials;
+    private final ParseError error;
+    private final List<ParseError> warnings;
+
+    private ParseResult(HttpAuthCredentials credentials, ParseError error,
+                        List<ParseError> warnings) {
+        this.credentials = credentials;
+        this.error = error;
+        this.warnings = warnings;
+    }
+
+    static ParseResult success(HttpAuthCredentials credentials, List<ParseError> warnings) {
+        return new ParseResult(credentials,
+                               null,
+                               warnings == null
+                               ? Collections.emptyList()
+                               : Collections.unmodifiableList(warnings));
+    }
+
+    static ParseResult failure(ParseError error) {
+        return new ParseResult(null, error, Collections.emptyList());
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the parsed credentials.
+     *
+     * @return the credentials, or null if the parsing failed
+     */
+    public HttpAuthCredentials getCredentials() {
+        return credentials;
+    }
+
+    /**
+     * Returns the error which made the parsing fail.
+     *
+     * @return the error, or null if the parsing succeeded
+     */
+    public ParseError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the errors tolerated in lenient mode, in the order they were found.
+     *
+     * @return the errors as an unmodifiable list, empty in strict mode or if the parsing failed
+     */
+    public List<ParseError> getWarnings() {
+        return warnings;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+               ? "ParseResult{" + "credentials=" + credentials + ", warnings=" + warnings + '}'
+               : "ParseResult{" + "error=" + error + '}';
+    }
+}
@@ -0,0 +1,60 @@
+package im.toss.http.parser;
+
+import static im.toss.http.parser.Constants.DQUOTE;
+
+/**
+ * Decodes quoted strings into the text they quote.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7230#section-3.2.6">Section 3.2.6 of RFC 7230</a>
+ */
+final class QuotedStrings {
+
+    private QuotedStrings() {
+    }
+
+    /**
+     * Removes the surrounding DQUOTEs of the given quoted string and unescapes its quoted-pairs.
+     *
+     * <p>A quoted string without any quoted-pair is returned as a substring, and one with
+     * quoted-pairs is decoded into a buffer of the exact size of the result. A value which is not
+     * a quoted string, such as a token or a malformed quoted string tolerated in lenient mode, is
+     * returned as it is.
+     *
+     * @param value  the value of an auth-param, not null
+     * @return the decoded value, not null
+     */
+    static String unquote(String value) {
+        int last = value.length() - 1;
+        if (last < 1 || value.charAt(0) != DQUOTE || value.charAt(last) != DQUOTE) {
+            return value;
+        }
+
+        // One pass to check the structure and count the quoted-pairs
+        int pairs = 0;
+        for (int i = 1; i < last; i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\') {
+                if (i + 1 == last) {
+                    // The closing DQUOTE is escaped.
+                    return value;
+                }
+                pairs++;
+                i++;
+            } else if (ch == DQUOTE) {
+                return value;
+            }
+        }
+
+        if (pairs == 0) {
+            return value.substring(1, last);
+        }
+
+        char[] decoded = new char[last - 1 - pairs];
+        int length = 0;
+        for (int i = 1; i < last; i++) {
+            char ch = value.charAt(i);
+            decoded[length++] = ch == '\\' ? value.charAt(++i) : ch;
+        }
+        return new String(decoded);
+    }
+}
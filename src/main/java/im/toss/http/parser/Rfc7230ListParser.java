@@ -1,25 +1,51 @@
 package im.toss.http.parser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static im.toss.http.parser.Constants.DQUOTE;
+import static im.toss.http.parser.Constants.SP;
 
 /**
  * Parses comma-delimited lists of elements.
  *
+ * <p>The elements are recorded as pairs of start and end offsets into the input, in a primitive
+ * array, and a {@link String} is only created for an element when it is asked for. A parser created
+ * by {@link #Rfc7230ListParser()} can be reused by {@link #split(CharSequence)} for any number of
+ * lists, keeping its array, so that splitting a list creates no garbage at all. A parser is not
+ * thread-safe, so a reused one must be confined to a thread at a time, such as by a
+ * {@link ThreadLocal} or a pool. It holds no lock, so it does not pin the carrier of a virtual
+ * thread either.
+ *
+ * <pre>{@code
+ * Rfc7230ListParser parser = new Rfc7230ListParser();
+ * for (int i = 0, size = parser.split(header); i < size; i++) {
+ *     if (isKnown(header, parser.start(i), parser.end(i))) {
+ *         known.add(parser.value(i));
+ *     }
+ * }
+ * parser.reset();
+ * }</pre>
+ *
  * @see <a href="https://tools.ietf.org/html/rfc7230#section-7">Section 7 of RFC 7230</a>
  */
 public class Rfc7230ListParser {
 
-    private final String input;
-    private final List<String> values;
-    private StringBuilder valueBuilder;
+    private CharSequence input;
 
-    Rfc7230ListParser(String input) {
-        this.input = input;
-        this.values = new ArrayList<>();
-        this.valueBuilder = new StringBuilder();
+    // The start and end offsets of each element, trimmed
+    private int[] offsets;
+    private int size;
+
+    // Created on first access
+    private List<String> values;
+
+    /**
+     * Creates a parser to be reused by {@link #split(CharSequence)}.
+     */
+    public Rfc7230ListParser() {
+        this.offsets = new int[8 * 2];
     }
 
     /**
@@ -30,21 +56,35 @@ public class Rfc7230ListParser {
      * @throws Rfc7230ListParserException if the input cannot be parsed
      */
     public static Rfc7230ListParser parse(String input) {
-        Rfc7230ListParser parser = new Rfc7230ListParser(input);
-        parser.parse();
+        Rfc7230ListParser parser = new Rfc7230ListParser();
+        parser.split(input);
         return parser;
     }
 
-    private void parse() {
+    /**
+     * Splits the given list, replacing the elements of the list split before.
+     *
+     * <p>The input is referenced, not copied, until the next split or {@link #reset()}, so a
+     * mutable input must not be modified while its elements are accessed.
+     *
+     * @param input  a comma-delimited list. Must not be null.
+     * @return the number of elements
+     * @throws Rfc7230ListParserException if the input has an unclosed quoted string or quoted pair
+     */
+    public int split(CharSequence input) {
+        this.input = input;
+        this.size = 0;
+        this.values = null;
 
         boolean inQuotedPair = false;
         boolean inQuotedString = false;
+        int elementStart = 0;
+        int length = input.length();
 
-        for(char ch : input.toCharArray()) {
+        for (int i = 0; i < length; i++) {
+            char ch = input.charAt(i);
             switch (ch) {
                 case DQUOTE:
-                    valueBuilder.append(ch);
-
                     if (inQuotedPair) {
                         break;
                     }
@@ -52,18 +92,19 @@ public class Rfc7230ListParser {
                     inQuotedString = !inQuotedString;
 
                     if (!inQuotedString) {
-                        closeValue();
+                        // The closing DQUOTE is the end of the element.
+                        closeValue(elementStart, i + 1);
+                        elementStart = i + 1;
                     }
                     break;
                 case ',':
-                    if (inQuotedString || inQuotedPair) {
-                        valueBuilder.append(ch);
-                    } else {
-                        closeValue();
+                    if (!inQuotedString && !inQuotedPair) {
+                        closeValue(elementStart, i);
+                        elementStart = i + 1;
                     }
                     break;
                 default:
-                    valueBuilder.append(ch);
+                    break;
             }
 
             inQuotedPair = !inQuotedPair && ch == '\\';
@@ -77,15 +118,87 @@ public class Rfc7230ListParser {
             throw new Rfc7230ListParserException("Unclosed quoted string");
         }
 
-        closeValue();
+        closeValue(elementStart, length);
+        return size;
+    }
+
+    private void closeValue(int start, int end) {
+        // Same as String#trim
+        while (start < end && input.charAt(start) <= SP) {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= SP) {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+        if (size * 2 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[size * 2] = start;
+        offsets[size * 2 + 1] = end;
+        size++;
+    }
+
+    /**
+     * Releases the input split last, so that a pooled parser does not keep it reachable.
+     */
+    public void reset() {
+        this.input = null;
+        this.size = 0;
+        this.values = null;
+    }
+
+    /**
+     * Returns the number of elements of the list split last.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the start offset of the given element in the input, inclusive.
+     *
+     * @param index  the index of the element
+     * @return the offset of the first character of the element, without leading whitespace
+     * @throws IndexOutOfBoundsException if there is no such element
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return offsets[index * 2];
     }
 
-    private void closeValue() {
-        String value = valueBuilder.toString().trim();
-        if (!value.isEmpty()) {
-            values.add(value);
+    /**
+     * Returns the end offset of the given element in the input, exclusive.
+     *
+     * @param index  the index of the element
+     * @return the offset after the last character of the element, without trailing whitespace
+     * @throws IndexOutOfBoundsException if there is no such element
+     */
+    public int end(int index) {
+        checkIndex(index);
+        return offsets[index * 2 + 1];
+    }
+
+    /**
+     * Returns the given element as a new string.
+     *
+     * @param index  the index of the element
+     * @return the element, not empty
+     * @throws IndexOutOfBoundsException if there is no such element
+     */
+    public String value(int index) {
+        checkIndex(index);
+        return input.subSequence(offsets[index * 2], offsets[index * 2 + 1]).toString();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        valueBuilder = new StringBuilder();
     }
 
     /**
@@ -94,6 +207,14 @@ public class Rfc7230ListParser {
      * @return the list of parsed values
      */
     public List<String> values() {
+        List<String> values = this.values;
+        if (values == null) {
+            values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(value(i));
+            }
+            this.values = values;
+        }
         return values;
     }
 }
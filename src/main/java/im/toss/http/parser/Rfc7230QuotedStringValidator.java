@@ -1,8 +1,8 @@
 package im.toss.http.parser;
 
+import static im.toss.http.parser.CharClasses.QDTEXT;
+import static im.toss.http.parser.CharClasses.QUOTED_PAIR_TEXT;
 import static im.toss.http.parser.Constants.DQUOTE;
-import static im.toss.http.parser.Constants.HTAB;
-import static im.toss.http.parser.Constants.SP;
 
 /**
  * Validates a quoted string.
@@ -35,7 +35,8 @@ class Rfc7230QuotedStringValidator extends AbstractTokenValidator {
         State state = State.BEGIN;
 
         int pos = 0;
-        for(char ch : quotedString.toCharArray()) {
+        for(int i = 0; i < quotedString.length(); i++) {
+            char ch = quotedString.charAt(i);
             switch(state) {
                 case BEGIN:
                     if (ch == DQUOTE) {
@@ -53,7 +54,7 @@ class Rfc7230QuotedStringValidator extends AbstractTokenValidator {
                             state = State.END;
                             break;
                         default:
-                            if (!isQdText(ch)) {
+                            if (!CharClasses.is(ch, QDTEXT)) {
                                 throw new TokenValidationException(
                                         unexpectedCharacterError(ch, pos));
                             }
@@ -65,7 +66,7 @@ class Rfc7230QuotedStringValidator extends AbstractTokenValidator {
                     // VCHAR          =  %x21-7E
                     // HTAB           =  %x09
                     // SP             =  %x20
-                    if (ch == SP || ch == HTAB || isObsText(ch) || isVchar(ch)) {
+                    if (CharClasses.is(ch, QUOTED_PAIR_TEXT)) {
                         state = State.QUOTED_STRING;
                         continue;
                     } else {
@@ -87,17 +88,31 @@ class Rfc7230QuotedStringValidator extends AbstractTokenValidator {
         }
     }
 
-    private boolean isQdText(char ch) {
-        // qdtext = HTAB / SP / %x21 / %x23-5B / %x5D-7E / obs-text
-        return ch == HTAB || ch == SP || (isVchar(ch) && ch != DQUOTE && ch != '\\')
-               || isObsText(ch);
-    }
-
-    private boolean isVchar(char ch) {
-        return ch >= 0x21 && ch <= 0x7E;
-    }
-
-    private boolean isObsText(char ch) {
-        return ch >= 0x80 && ch <= 0xFF;
+    @Override
+    int indexOfError(CharSequence input, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        if (input.charAt(start) != DQUOTE) {
+            return start;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch == '\\') {
+                i++;
+                if (i == end) {
+                    return end;
+                }
+                if (!CharClasses.is(input.charAt(i), QUOTED_PAIR_TEXT)) {
+                    return i;
+                }
+            } else if (ch == DQUOTE) {
+                // Nothing may follow the closing DQUOTE.
+                return i == end - 1 ? -1 : i + 1;
+            } else if (!CharClasses.is(ch, QDTEXT)) {
+                return i;
+            }
+        }
+        return end;
     }
 }
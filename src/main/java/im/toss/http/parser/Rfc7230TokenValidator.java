@@ -1,7 +1,6 @@
 package im.toss.http.parser;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import static im.toss.http.parser.CharClasses.TOKEN_TEXT;
 
 /**
  * Validates a token
@@ -10,8 +9,6 @@ import java.util.regex.Pattern;
  */
 class Rfc7230TokenValidator extends AbstractTokenValidator {
 
-    private static final Pattern p = Pattern.compile("[^-A-Za-z0-9!#$%&'*+.^_`|~ \"\\\\]");
-
     /**
      * Validates a token
      *
@@ -21,10 +18,15 @@ class Rfc7230TokenValidator extends AbstractTokenValidator {
      */
     @Override
     public void validate(String token) {
-        Matcher matcher = p.matcher(token);
-        if (matcher.find()) {
-            throw new TokenValidationException(unexpectedCharacterError(matcher.group(),
-                                                                        matcher.start()));
+        int pos = indexOfError(token, 0, token.length());
+        if (pos >= 0) {
+            throw new TokenValidationException(unexpectedCodePointError(token, pos));
         }
     }
+
+    @Override
+    int indexOfError(CharSequence input, int start, int end) {
+        int pos = CharClasses.indexOfNot(input, start, end, TOKEN_TEXT);
+        return pos == end ? -1 : pos;
+    }
 }
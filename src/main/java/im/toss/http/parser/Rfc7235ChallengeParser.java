@@ -0,0 +1,127 @@
+package im.toss.http.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static im.toss.http.parser.CharClasses.TCHAR;
+import static im.toss.http.parser.CharClasses.WHITESPACE;
+
+/**
+ * Parses the challenges of a WWW-Authenticate or Proxy-Authenticate header in a single pass.
+ *
+ * <p>Commas separate both the challenges and the auth-params of a challenge, so the list is split
+ * into elements by the list state machine of {@link Rfc7235CredentialsParser}, and each element is
+ * told apart as it is closed: an element which begins with a token followed by whitespace, other
+ * than the name of an auth-param followed by "=", or which is a token alone, begins a new
+ * challenge with that token as its auth-scheme, and the rest of it is the first element of the
+ * challenge. Any other element belongs to the current challenge, and is parsed by the credentials
+ * parser as an element of credentials is, with the same validators and the same strict and
+ * lenient semantics.
+ *
+ * <p>The parts are tracked as offsets into the input, and if the input is a {@link String}, the
+ * challenges are sliced from it only when their parts are accessed.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7235#section-4.1">Section 4.1 of RFC 7235</a>
+ */
+final class Rfc7235ChallengeParser implements Rfc7235CredentialsParser.ElementGroups {
+
+    private final CharSequence input;
+    private final Rfc7235CredentialsParser parser;
+
+    private final List<HttpAuthChallenge> challenges;
+
+    // The current challenge, if schemeStart is not negative
+    private int schemeStart;
+    private int schemeEnd;
+
+    private Rfc7235ChallengeParser(CharSequence input, boolean strict) {
+        this.input = input;
+        this.parser = new Rfc7235CredentialsParser(input, strict, null);
+        this.challenges = new ArrayList<>(2);
+        this.schemeStart = -1;
+        parser.groupElements(this);
+    }
+
+    /**
+     * Parses the given challenges.
+     *
+     * @param input  the challenges to parse, not null
+     * @param strict  For every parsing error, an exception is thrown if true, a warning message is
+     *                logged if false
+     * @return the challenges in the order they appear, as an unmodifiable list, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @throws Rfc7230ListParserException if the input has an unclosed quoted string or quoted pair
+     */
+    static List<HttpAuthChallenge> parse(CharSequence input, boolean strict) {
+        Rfc7235ChallengeParser challengeParser = new Rfc7235ChallengeParser(input, strict);
+        Rfc7235CredentialsParser parser = challengeParser.parser;
+        parser.startList(0);
+        parser.feedList(0, input.length());
+        ParseError error = parser.endList(input.length());
+        if (error != null) {
+            throw Rfc7235CredentialsParser.exception(error);
+        }
+        if (parser.errors() != null) {
+            for (ParseError warning : parser.errors()) {
+                HttpAuthCredentials.warn(warning);
+            }
+        }
+        return Collections.unmodifiableList(challengeParser.challenges);
+    }
+
+    @Override
+    public int onElement(int start, int end) {
+        // challenge = auth-scheme [ 1*SP ( token68 / #auth-param ) ]
+        int tokenEnd = CharClasses.indexOfNot(input, start, end, TCHAR);
+        if (tokenEnd == end) {
+            parser.endGroup();
+            schemeStart = start;
+            schemeEnd = end;
+            return -1;
+        }
+        if (tokenEnd > start && CharClasses.is(input.charAt(tokenEnd), WHITESPACE)) {
+            int rest = tokenEnd;
+            while (CharClasses.is(input.charAt(rest), WHITESPACE)) {
+                rest++;
+            }
+            // Unless it is the name of an auth-param followed by BWS
+            if (input.charAt(rest) != '=') {
+                parser.endGroup();
+                schemeStart = start;
+                schemeEnd = tokenEnd;
+                return rest;
+            }
+        }
+
+        if (schemeStart < 0) {
+            parser.reportError(ParseError.Kind.BAD_SCHEME, start, end, start);
+            return -1;
+        }
+        return start;
+    }
+
+    @Override
+    public void onGroup(int tokenStart, int tokenEnd, int[] paramRegions) {
+        if (schemeStart < 0) {
+            // The elements before the first challenge are skipped, so there is nothing to close.
+            return;
+        }
+        if (tokenStart < 0) {
+            tokenStart = tokenEnd = schemeEnd;
+        }
+
+        if (input instanceof String) {
+            // Immutable, so the parts can be sliced from it on first access.
+            challenges.add(new HttpAuthChallenge((String) input, schemeStart, schemeEnd,
+                                                 tokenStart, tokenEnd, paramRegions));
+        } else {
+            String scheme = input.subSequence(schemeStart, schemeEnd).toString();
+            challenges.add(new HttpAuthChallenge(
+                    scheme,
+                    input.subSequence(tokenStart, tokenEnd).toString(),
+                    HttpAuthChallenge.params(input, schemeStart, schemeEnd, paramRegions)));
+        }
+        schemeStart = -1;
+    }
+}
@@ -0,0 +1,654 @@
+package im.toss.http.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static im.toss.http.parser.CharClasses.WHITESPACE;
+import static im.toss.http.parser.Constants.DQUOTE;
+import static im.toss.http.parser.Constants.SP;
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_QUOTED_STRING;
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_TOKEN;
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7235_TOKEN68;
+
+/**
+ * Parses credentials in a single pass over the input.
+ *
+ * <p>The auth-scheme, the elements of the list and the key and value of each auth-param are
+ * tracked as offsets into the input while it is swept, and each element is validated in place as
+ * soon as it is closed. No intermediate strings are created except the ones that end up in the
+ * result, and those are copied region by region, so an input such as a view of the header bytes is
+ * never turned into a {@link String} as a whole. If the input is a {@link String}, the parts are
+ * not even copied until they are accessed. The results, including the strict and lenient
+ * semantics, are the same as splitting the credentials with {@link Rfc7230ListParser} and
+ * {@link KvPair} and validating every part with the token validators.
+ *
+ * <p>A list which is a single token68, as in Basic and Bearer credentials, is recognized by a
+ * single scan with the token68 validator, and parsed by the state machine only if the scan fails.
+ *
+ * <p>Given a {@link HttpAuthCredentialsVisitor}, the parser passes each part to it as soon as the
+ * part is closed, instead of recording it.
+ *
+ * <p>Errors are recorded as {@link ParseError}s, which carry no stack trace, and exceptions are
+ * only created by {@link #parse(CharSequence, boolean)} for an error which is actually thrown.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7235#section-2.1">Section 2.1 of RFC 7235</a>
+ */
+final class Rfc7235CredentialsParser {
+
+    private CharSequence input;
+    private final boolean strict;
+
+    private final TokenValidator tokenValidator;
+    private final TokenValidator quotedStringValidator;
+    private final TokenValidator token68Validator;
+
+    // Whether a list which is a single token68 can be recognized by a single scan
+    private final boolean token68Shortcut;
+
+    // Null unless the parts are passed to a visitor instead of being recorded
+    private final HttpAuthCredentialsVisitor visitor;
+    private final CharSequenceView name;
+    private final CharSequenceView value;
+    private boolean stopped;
+
+    private int schemeEnd;
+
+    // The start and end indexes of the key and the value of each auth-param
+    private int[] paramRegions;
+    private int paramCount;
+    private int tokenStart;
+    private int tokenEnd;
+    private int tokenError;
+    // Found by a visitor as the token68 closes, while its region is still in a window over chunks
+    private ParseError badToken;
+
+    // Errors are reported after the whole input is swept, because an unclosed quoted string or
+    // quoted pair must be reported prior to any other error.
+    private List<ParseError> errors;
+    private ParseError unclosed;
+
+    // Null unless the elements are split into groups, such as challenges
+    private ElementGroups groups;
+
+    // The state of the list, kept across calls to feedList
+    private int listStart;
+    private int elementStart;
+    private int equalSign;
+    private boolean inQuotedPair;
+    private boolean inQuotedString;
+
+    Rfc7235CredentialsParser(CharSequence input, boolean strict,
+                                     HttpAuthCredentialsVisitor visitor) {
+        this.input = input;
+        this.strict = strict;
+        this.visitor = visitor;
+        this.name = visitor == null ? null : new CharSequenceView(input);
+        this.value = visitor == null ? null : new CharSequenceView(input);
+        this.tokenValidator = TokenValidatorFactory.validator(RFC7230_TOKEN);
+        this.quotedStringValidator = TokenValidatorFactory.validator(RFC7230_QUOTED_STRING);
+        this.token68Validator = TokenValidatorFactory.validator(RFC7235_TOKEN68);
+        this.token68Shortcut = token68Validator.getClass() == Rfc7235Token68Validator.class;
+        this.tokenStart = -1;
+        this.tokenError = -1;
+    }
+
+    /**
+     * Creates a parser which can be reused by {@link #parseNext(CharSequence)}, so that its
+     * buffers and validators are shared by all the credentials it parses.
+     *
+     * @param strict  The parsing fails on the first parsing error if true, and fails only for an
+     *                unclosed quoted string or quoted pair if false
+     */
+    Rfc7235CredentialsParser(boolean strict) {
+        this(null, strict, null);
+    }
+
+    /**
+     * Parses the given credentials.
+     *
+     * @param input  the credentials to parse, not null
+     * @param strict  For every parsing error, an exception is thrown if true, a warning message is
+     *                logged if false
+     * @return HttpAuthCredentials, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @throws Rfc7230ListParserException if the input has an unclosed quoted string or quoted pair
+     */
+    static HttpAuthCredentials parse(CharSequence input, boolean strict) {
+        ParseResult result = tryParse(input, strict);
+        if (!result.isSuccess()) {
+            throw exception(result.getError());
+        }
+        for (ParseError warning : result.getWarnings()) {
+            HttpAuthCredentials.warn(warning);
+        }
+        return result.getCredentials();
+    }
+
+    /**
+     * Parses the given credentials without throwing for a parsing error.
+     *
+     * @param input  the credentials to parse, not null
+     * @param strict  The parsing fails on the first parsing error if true, and fails only for an
+     *                unclosed quoted string or quoted pair if false
+     * @return ParseResult, not null
+     */
+    static ParseResult tryParse(CharSequence input, boolean strict) {
+        return new Rfc7235CredentialsParser(strict).parseNext(input);
+    }
+
+    /**
+     * Parses the given credentials without throwing for a parsing error, reusing this parser. A
+     * parser must not be used by more than one thread at a time.
+     *
+     * @param input  the credentials to parse, not null
+     * @return ParseResult, not null
+     */
+    ParseResult parseNext(CharSequence input) {
+        reset(input);
+
+        ParseMetrics metrics = HttpAuthCredentials.parseMetrics();
+        if (metrics == ParseMetrics.NONE) {
+            return parse();
+        }
+
+        long start = System.nanoTime();
+        ParseResult result = parse();
+        metrics.onParse(input, result, System.nanoTime() - start);
+        return result;
+    }
+
+    void reset(CharSequence input) {
+        // The buffer of the regions is kept, as only a copy of it ends up in the result.
+        this.input = input;
+        this.schemeEnd = 0;
+        this.paramCount = 0;
+        this.tokenStart = -1;
+        this.tokenEnd = 0;
+        this.tokenError = -1;
+        this.badToken = null;
+        this.errors = null;
+        this.unclosed = null;
+        this.stopped = false;
+    }
+
+    /**
+     * Parses the given credentials, passing each part to the given visitor until it returns
+     * false. In strict mode, the parts following the first parsing error are not passed.
+     *
+     * @param input  the credentials to parse, not null
+     * @param strict  For every parsing error, an exception is thrown if true, a warning message is
+     *                logged if false
+     * @param visitor  the visitor, not null
+     * @throws HttpAuthCredentialParseException for every parsing error if {@code strict} is true
+     * @throws Rfc7230ListParserException if the input has an unclosed quoted string or quoted pair
+     */
+    static void parse(CharSequence input, boolean strict, HttpAuthCredentialsVisitor visitor) {
+        ParseResult result = visit(input, strict, visitor);
+        if (!result.isSuccess()) {
+            throw exception(result.getError());
+        }
+        for (ParseError warning : result.getWarnings()) {
+            HttpAuthCredentials.warn(warning);
+        }
+    }
+
+    /**
+     * Parses the given credentials, passing each part to the given visitor until it returns
+     * false, without throwing for a parsing error.
+     *
+     * @param input  the credentials to parse, not null
+     * @param strict  The parsing fails on the first parsing error if true, and fails only for an
+     *                unclosed quoted string or quoted pair if false
+     * @param visitor  the visitor, not null
+     * @return ParseResult without credentials, not null
+     */
+    static ParseResult visit(CharSequence input, boolean strict,
+                             HttpAuthCredentialsVisitor visitor) {
+        Rfc7235CredentialsParser parser = new Rfc7235CredentialsParser(input, strict, visitor);
+        ParseError error = parser.sweep();
+        if (error != null) {
+            return ParseResult.failure(error);
+        }
+        return ParseResult.success(null, parser.errors);
+    }
+
+    private ParseResult parse() {
+        ParseError error = sweep();
+        if (error != null) {
+            return ParseResult.failure(error);
+        }
+
+        int[] regions = paramCount == 0 ? null : Arrays.copyOf(paramRegions, paramCount * 4);
+        if (tokenStart < 0) {
+            tokenStart = tokenEnd = schemeEnd;
+        }
+
+        HttpAuthCredentials credentials;
+        if (input instanceof String) {
+            // Immutable, so the parts can be sliced from it on first access.
+            credentials = new HttpAuthCredentials((String) input, schemeEnd, tokenStart, tokenEnd,
+                                                  regions);
+        } else {
+            credentials = new HttpAuthCredentials(substring(0, schemeEnd),
+                                                  substring(tokenStart, tokenEnd),
+                                                  params(input, schemeEnd, regions));
+        }
+        return ParseResult.success(credentials, errors);
+    }
+
+    private ParseError sweep() {
+        // credentials = auth-scheme [ 1*SP ( token68 / #auth-param ) ]
+        int length = input.length();
+
+        schemeEnd = 0;
+        while (schemeEnd < length && !CharClasses.is(input.charAt(schemeEnd), WHITESPACE)) {
+            schemeEnd++;
+        }
+        if (visitor != null && !visitor.onScheme(name.moveTo(0, schemeEnd))) {
+            return null;
+        }
+
+        int listStart = schemeEnd;
+        while (listStart < length && CharClasses.is(input.charAt(listStart), WHITESPACE)) {
+            listStart++;
+        }
+
+        if (isToken68(listStart, length)) {
+            // Most credentials, such as Basic and Bearer ones, are a single token68, which needs
+            // neither the list state machine nor a second pass to be validated.
+            tokenStart = listStart;
+            tokenEnd = length;
+            if (visitor != null) {
+                visitor.onToken68(value.moveTo(listStart, length));
+            }
+            return null;
+        }
+
+        startList(listStart);
+        feedList(listStart, length);
+        return endList(length);
+    }
+
+    /**
+     * Ends the list fed so far, and reports the errors found in it. If the elements are split into
+     * groups, the last group is ended as well.
+     *
+     * @param end  the end index of the list
+     * @return the error which fails the parsing, or null
+     */
+    ParseError endList(int end) {
+        if (!stopped) {
+            closeList(end);
+        }
+        if (unclosed != null) {
+            return unclosed;
+        }
+
+        if (groups != null) {
+            endGroup();
+        } else {
+            if (tokenStart >= 0 && visitor == null) {
+                tokenError = indexOfError(token68Validator, tokenStart, tokenEnd);
+                if (tokenError >= 0) {
+                    reportError(ParseError.Kind.BAD_TOKEN, tokenStart, tokenEnd, tokenError);
+                }
+            } else if (badToken != null) {
+                // Reported after the auth-params, even if it is found first by a visitor
+                addError(badToken);
+            }
+        }
+
+        return strict && errors != null ? errors.get(0) : null;
+    }
+
+    /**
+     * Splits the elements of the list into groups, each with its own token68 and auth-params,
+     * instead of taking them all as the ones of a single credentials.
+     *
+     * @param groups  the receiver of the elements and the groups, not null
+     */
+    void groupElements(ElementGroups groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Ends the group of the elements closed since the previous group ended: its token68 is
+     * validated, and its token68 and auth-params are passed to
+     * {@link ElementGroups#onGroup(int, int, int[])} and forgotten.
+     */
+    void endGroup() {
+        if (tokenStart >= 0) {
+            int error = indexOfError(token68Validator, tokenStart, tokenEnd);
+            if (error >= 0) {
+                reportError(ParseError.Kind.BAD_TOKEN, tokenStart, tokenEnd, error);
+            }
+        }
+        int[] regions = paramCount == 0 ? null : Arrays.copyOf(paramRegions, paramCount * 4);
+        groups.onGroup(tokenStart, tokenEnd, regions);
+        tokenStart = -1;
+        tokenEnd = 0;
+        paramCount = 0;
+    }
+
+    /**
+     * Returns the errors reported so far.
+     *
+     * @return the errors, or null if there is none
+     */
+    List<ParseError> errors() {
+        return errors;
+    }
+
+    private boolean isToken68(int start, int end) {
+        // The built-in validator accepts no delimiter, quote or whitespace, and "=" only at the
+        // end, so such a list is parsed as this token68 alone, without any error.
+        return token68Shortcut
+               && start < end
+               && ((AbstractTokenValidator) token68Validator).indexOfError(input, start, end) < 0;
+    }
+
+    /**
+     * Creates the exception thrown for the given error in strict mode. The cause, if any, is the
+     * exception thrown by the validator which rejected the token68 or the auth-param.
+     *
+     * @param error  the error, not null
+     * @return the exception, not null
+     */
+    static RuntimeException exception(ParseError error) {
+        switch (error.getKind()) {
+            case UNCLOSED_QUOTED_STRING:
+            case UNCLOSED_QUOTED_PAIR:
+                return new Rfc7230ListParserException(error.getMessage());
+            case MULTIPLE_TOKEN68:
+            case BAD_SCHEME:
+                return new HttpAuthCredentialParseException(error.getMessage());
+            default:
+                return new HttpAuthCredentialParseException(error.getMessage(), cause(error));
+        }
+    }
+
+    private static Exception cause(ParseError error) {
+        // Let the validators describe the error; this is not on the hot path.
+        try {
+            String element = error.region();
+            if (error.getKind() == ParseError.Kind.BAD_TOKEN) {
+                TokenValidatorFactory.validator(RFC7235_TOKEN68).validate(element);
+                return null;
+            }
+            int equalSign = element.indexOf('=');
+            String key = element.substring(0, equalSign).trim();
+            String value = element.substring(equalSign + 1).trim();
+            TokenValidatorFactory.validator(RFC7230_TOKEN).validate(key);
+            if (value.startsWith("\"")) {
+                TokenValidatorFactory.validator(RFC7230_QUOTED_STRING).validate(value);
+            } else {
+                TokenValidatorFactory.validator(RFC7230_TOKEN).validate(value);
+            }
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    /**
+     * Builds the params from the regions of the auth-params recorded while parsing.
+     *
+     * @param input  the parsed input, not null
+     * @param schemeEnd  the end index of the auth-scheme
+     * @param regions  the start and end indexes of the key and the value of each auth-param, or
+     *                 null if there is no auth-param
+     * @return the params, not null
+     */
+    static Map<String, List<String>> params(CharSequence input, int schemeEnd, int[] regions) {
+        if (regions == null) {
+            return Collections.emptyMap();
+        }
+        return AuthParams.of(input, regions, ParamSchema.forScheme(input, 0, schemeEnd));
+    }
+
+    void startList(int from) {
+        listStart = from;
+        elementStart = from;
+        equalSign = -1;
+        inQuotedPair = false;
+        inQuotedString = false;
+    }
+
+    /**
+     * Sweeps the given region of the list, which follows the region swept last, so that a list
+     * can be fed in chunks as long as its current element is kept in the input.
+     */
+    void feedList(int from, int to) {
+        // The same state machine as Rfc7230ListParser, except that elements are kept as offsets.
+        boolean inQuotedPair = this.inQuotedPair;
+        boolean inQuotedString = this.inQuotedString;
+        int elementStart = this.elementStart;
+        int equalSign = this.equalSign;
+
+        for (int i = from; i < to && !stopped; i++) {
+            char ch = input.charAt(i);
+            switch (ch) {
+                case DQUOTE:
+                    if (inQuotedPair) {
+                        break;
+                    }
+
+                    inQuotedString = !inQuotedString;
+
+                    if (!inQuotedString) {
+                        closeElement(elementStart, i + 1, equalSign);
+                        elementStart = i + 1;
+                        equalSign = -1;
+                    }
+                    break;
+                case ',':
+                    if (!inQuotedString && !inQuotedPair) {
+                        closeElement(elementStart, i, equalSign);
+                        elementStart = i + 1;
+                        equalSign = -1;
+                    }
+                    break;
+                case '=':
+                    if (equalSign < 0) {
+                        equalSign = i;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            inQuotedPair = !inQuotedPair && ch == '\\';
+        }
+
+        this.inQuotedPair = inQuotedPair;
+        this.inQuotedString = inQuotedString;
+        this.elementStart = elementStart;
+        this.equalSign = equalSign;
+    }
+
+    /**
+     * Returns the start index of the element which is not closed yet.
+     */
+    int elementStart() {
+        return elementStart;
+    }
+
+    private void closeList(int to) {
+        if (inQuotedPair) {
+            unclosed = new ParseError(ParseError.Kind.UNCLOSED_QUOTED_PAIR, input, listStart, to,
+                                      to);
+            return;
+        }
+
+        if (inQuotedString) {
+            unclosed = new ParseError(ParseError.Kind.UNCLOSED_QUOTED_STRING, input, listStart,
+                                      to, to);
+            return;
+        }
+
+        closeElement(elementStart, to, equalSign);
+    }
+
+    private void closeElement(int start, int end, int equalSign) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        if (start == end) {
+            return;
+        }
+        if (groups != null) {
+            start = groups.onElement(start, end);
+            if (start < 0) {
+                return;
+            }
+        }
+
+        // auth-param = token BWS "=" BWS ( token / quoted-string )
+        int keyStart = start;
+        int keyEnd = equalSign < 0 ? start : trimEnd(start, equalSign);
+        int valueStart = equalSign < 0 ? end : trimStart(equalSign + 1, end);
+        int valueEnd = end;
+
+        if (keyStart == keyEnd || valueStart == valueEnd) {
+            if (tokenStart < 0) {
+                tokenStart = start;
+                tokenEnd = end;
+                if (visitor != null) {
+                    tokenError = indexOfError(token68Validator, start, end);
+                    if (tokenError >= 0) {
+                        badToken = newError(ParseError.Kind.BAD_TOKEN, start, end, tokenError);
+                    }
+                    if (isVisiting()) {
+                        stopped = !visitor.onToken68(value.moveTo(start, end));
+                    }
+                }
+            } else {
+                reportError(ParseError.Kind.MULTIPLE_TOKEN68, start, end, start);
+            }
+            return;
+        }
+
+        int error = indexOfError(tokenValidator, keyStart, keyEnd);
+        if (error < 0) {
+            error = input.charAt(valueStart) == DQUOTE
+                    ? indexOfError(quotedStringValidator, valueStart, valueEnd)
+                    : indexOfError(tokenValidator, valueStart, valueEnd);
+        }
+        if (error >= 0) {
+            reportError(ParseError.Kind.BAD_PARAMETER, start, end, error);
+        }
+
+        if (visitor != null) {
+            if (isVisiting()) {
+                stopped = !visitor.onParam(name.moveTo(keyStart, keyEnd),
+                                           value.moveTo(valueStart, valueEnd));
+            }
+            return;
+        }
+
+        if (paramRegions == null) {
+            paramRegions = new int[4 * 4];
+        } else if (paramCount * 4 == paramRegions.length) {
+            paramRegions = Arrays.copyOf(paramRegions, paramRegions.length * 2);
+        }
+        int i = paramCount++ * 4;
+        paramRegions[i] = keyStart;
+        paramRegions[i + 1] = keyEnd;
+        paramRegions[i + 2] = valueStart;
+        paramRegions[i + 3] = valueEnd;
+    }
+
+    private boolean isVisiting() {
+        // In strict mode, nothing is passed once the parsing has failed.
+        return !strict || (errors == null && tokenError < 0);
+    }
+
+    void reportError(ParseError.Kind kind, int start, int end, int position) {
+        if (strict && errors != null) {
+            // Only the first error fails the parsing in strict mode.
+            return;
+        }
+        addError(newError(kind, start, end, position));
+    }
+
+    private void addError(ParseError error) {
+        if (strict && errors != null) {
+            return;
+        }
+        if (errors == null) {
+            errors = new ArrayList<>(1);
+        }
+        errors.add(error);
+    }
+
+    private ParseError newError(ParseError.Kind kind, int start, int end, int position) {
+        // A window over chunks moves on, so the region of the error is copied from it.
+        CharSequence errorInput = input instanceof ChunkWindow
+                                  ? ((ChunkWindow) input).freeze(start, end)
+                                  : input;
+        return new ParseError(kind, errorInput, start, end, position);
+    }
+
+    private String substring(int start, int end) {
+        // Only the region is copied, whatever the input is.
+        return input.subSequence(start, end).toString();
+    }
+
+    private int trimStart(int start, int end) {
+        // Same as String#trim
+        while (start < end && input.charAt(start) <= SP) {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && input.charAt(end - 1) <= SP) {
+            end--;
+        }
+        return end;
+    }
+
+    private int indexOfError(TokenValidator validator, int start, int end) {
+        if (validator instanceof AbstractTokenValidator) {
+            return ((AbstractTokenValidator) validator).indexOfError(input, start, end);
+        }
+        try {
+            validator.validate(substring(start, end));
+            return -1;
+        } catch (Exception e) {
+            // The validator does not tell where the error is.
+            return start;
+        }
+    }
+
+    /**
+     * Receives the elements of a list which holds more than one group of a token68 and
+     * auth-params, such as the challenges of a WWW-Authenticate header.
+     */
+    interface ElementGroups {
+
+        /**
+         * Receives an element as it is closed, before it is parsed as a token68 or an auth-param.
+         * {@link #endGroup()} may be called from here, so that the element begins a new group.
+         *
+         * @param start  the start index of the element, without leading whitespace
+         * @param end  the end index of the element, without trailing whitespace, after start
+         * @return the start index of the part of the element to parse as a token68 or an
+         * auth-param, or -1 to skip the element
+         */
+        int onElement(int start, int end);
+
+        /**
+         * Receives the token68 and the auth-params of a group as it ends.
+         *
+         * @param tokenStart  the start index of the token68, or -1 if there is none
+         * @param tokenEnd  the end index of the token68
+         * @param paramRegions  the start and end indexes of the key and the value of each
+         *                      auth-param, or null if there is no auth-param
+         */
+        void onGroup(int tokenStart, int tokenEnd, int[] paramRegions);
+    }
+}
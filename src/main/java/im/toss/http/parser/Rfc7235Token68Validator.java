@@ -1,7 +1,6 @@
 package im.toss.http.parser;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import static im.toss.http.parser.CharClasses.TCHAR;
 
 /**
  * Validates a token68.
@@ -10,8 +9,6 @@ import java.util.regex.Pattern;
  */
 class Rfc7235Token68Validator extends AbstractTokenValidator {
 
-    private static final Pattern p = Pattern.compile("[^-A-Za-z0-9!#$%&'*+.^_`|~]");
-
     /**
      * Validates a token68.
      *
@@ -21,13 +18,19 @@ class Rfc7235Token68Validator extends AbstractTokenValidator {
      */
     @Override
     public void validate(String token68) {
-        Matcher matcher = p.matcher(token68);
-        if (matcher.find()) {
-            if (matcher.start() == token68.length() - 1 && matcher.group().equals("=")) {
-                return;
-            }
-            throw new TokenValidationException(unexpectedCharacterError(matcher.group(),
-                                                                        matcher.start()));
+        int pos = indexOfError(token68, 0, token68.length());
+        if (pos >= 0) {
+            throw new TokenValidationException(unexpectedCodePointError(token68, pos));
+        }
+    }
+
+    @Override
+    int indexOfError(CharSequence input, int start, int end) {
+        int pos = CharClasses.indexOfNot(input, start, end, TCHAR);
+        // Only a trailing "=" is allowed.
+        if (pos == end || (pos == end - 1 && input.charAt(pos) == '=')) {
+            return -1;
         }
+        return pos;
     }
 }
@@ -0,0 +1,180 @@
+package im.toss.http.parser;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistics of the credentials found by {@link AuthorizationLogScanner}.
+ *
+ * <p>Schemes and param names are counted case-insensitively, and keyed by the spelling they were
+ * first seen in.
+ */
+public final class ScanStatistics {
+
+    private final long bytes;
+    private final long headerCount;
+    private final long failureCount;
+    private final long token68Count;
+    private final Map<String, Long> schemeCounts;
+    private final Map<String, Long> paramCounts;
+    private final Map<ParseError.Kind, Long> errorCounts;
+
+    ScanStatistics(long bytes, long headerCount, long failureCount, long token68Count,
+                   Map<String, Long> schemeCounts, Map<String, Long> paramCounts,
+                   Map<ParseError.Kind, Long> errorCounts) {
+        this.bytes = bytes;
+        this.headerCount = headerCount;
+        this.failureCount = failureCount;
+        this.token68Count = token68Count;
+        this.schemeCounts = Collections.unmodifiableMap(schemeCounts);
+        this.paramCounts = Collections.unmodifiableMap(paramCounts);
+        this.errorCounts = Collections.unmodifiableMap(errorCounts);
+    }
+
+    /**
+     * Returns the number of bytes scanned.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of header values found.
+     */
+    public long getHeaderCount() {
+        return headerCount;
+    }
+
+    /**
+     * Returns the number of header values which failed to parse.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns the number of header values with a token68, among those which parsed
+     * successfully.
+     */
+    public long getToken68Count() {
+        return token68Count;
+    }
+
+    /**
+     * Returns the number of header values by scheme, as a case-insensitive map, among those which
+     * parsed successfully.
+     */
+    public Map<String, Long> getSchemeCounts() {
+        return schemeCounts;
+    }
+
+    /**
+     * Returns the number of params by name, as a case-insensitive map, in the header values which
+     * parsed successfully.
+     */
+    public Map<String, Long> getParamCounts() {
+        return paramCounts;
+    }
+
+    /**
+     * Returns the number of parsing errors by kind, including the errors tolerated in lenient
+     * mode.
+     */
+    public Map<ParseError.Kind, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "ScanStatistics{" + "bytes=" + bytes + ", headerCount=" + headerCount
+               + ", failureCount=" + failureCount + ", token68Count=" + token68Count
+               + ", schemeCounts=" + schemeCounts + ", paramCounts=" + paramCounts
+               + ", errorCounts=" + errorCounts + '}';
+    }
+
+    /**
+     * Collects the statistics of a part of the scanned file. Not thread-safe.
+     */
+    static final class Collector implements HttpAuthCredentialsVisitor {
+
+        private long bytes;
+        private long headerCount;
+        private long failureCount;
+        private long token68Count;
+        private long pendingToken68Count;
+        private final NameCounts schemes = new NameCounts();
+        private final NameCounts params = new NameCounts();
+        private final long[] errorCounts = new long[ParseError.Kind.values().length];
+
+        void addBytes(long bytes) {
+            this.bytes += bytes;
+        }
+
+        /**
+         * Adds the result of a header, whose scheme, token68 and params, received since the
+         * previous header, are counted only if the header parsed successfully.
+         */
+        void add(ParseResult result) {
+            headerCount++;
+            if (result.isSuccess()) {
+                token68Count += pendingToken68Count;
+                schemes.commit();
+                params.commit();
+            } else {
+                failureCount++;
+                errorCounts[result.getError().getKind().ordinal()]++;
+                schemes.rollback();
+                params.rollback();
+            }
+            pendingToken68Count = 0;
+            for (ParseError warning : result.getWarnings()) {
+                errorCounts[warning.getKind().ordinal()]++;
+            }
+        }
+
+        @Override
+        public boolean onScheme(CharSequence scheme) {
+            schemes.increment(scheme);
+            return true;
+        }
+
+        @Override
+        public boolean onToken68(CharSequence token68) {
+            pendingToken68Count++;
+            return true;
+        }
+
+        @Override
+        public boolean onParam(CharSequence name, CharSequence value) {
+            params.increment(name);
+            return true;
+        }
+
+        static ScanStatistics merge(Iterable<Collector> collectors) {
+            long bytes = 0;
+            long headerCount = 0;
+            long failureCount = 0;
+            long token68Count = 0;
+            Map<String, Long> schemeCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Map<String, Long> paramCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Map<ParseError.Kind, Long> errorCounts = new EnumMap<>(ParseError.Kind.class);
+            for (Collector collector : collectors) {
+                bytes += collector.bytes;
+                headerCount += collector.headerCount;
+                failureCount += collector.failureCount;
+                token68Count += collector.token68Count;
+                collector.schemes.addTo(schemeCounts);
+                collector.params.addTo(paramCounts);
+                for (ParseError.Kind kind : ParseError.Kind.values()) {
+                    if (collector.errorCounts[kind.ordinal()] > 0) {
+                        errorCounts.merge(kind, collector.errorCounts[kind.ordinal()], Long::sum);
+                    }
+                }
+            }
+            return new ScanStatistics(bytes, headerCount, failureCount, token68Count,
+                                      schemeCounts, paramCounts, errorCounts);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package im.toss.http.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The auth-params of credentials whose names are in a {@link ParamSchema}, kept in an array
+ * indexed by the ordinals of the params. Params whose names are not in the schema are left out;
+ * they are still in {@link HttpAuthCredentials#getParams()}.
+ *
+ * @param <P>  the enum of the params
+ * @see HttpAuthCredentials#getParams(ParamSchema)
+ */
+public final class SchemaParams<P extends Enum<P> & ParamSchema.Param> {
+
+    private final ParamSchema<P> schema;
+
+    // A String if the param has a single value, a List<String> if it is repeated, or null
+    private final Object[] values;
+
+    private SchemaParams(ParamSchema<P> schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * Creates the params from the regions of the auth-params recorded while parsing, matching the
+     * names in place.
+     *
+     * @param input  the parsed input, not null
+     * @param regions  the start and end indexes of the key and the value of each auth-param, or
+     *                 null if there is no auth-param
+     */
+    static <P extends Enum<P> & ParamSchema.Param> SchemaParams<P> of(ParamSchema<P> schema,
+                                                                      CharSequence input,
+                                                                      int[] regions) {
+        Object[] values = new Object[schema.getParams().size()];
+        if (regions != null) {
+            for (int i = 0; i < regions.length; i += 4) {
+                int start = regions[i];
+                int end = regions[i + 1];
+                int index = schema.indexOf(input, start, end, AuthParams.hash(input, start, end));
+                if (index >= 0) {
+                    add(values, index, input.subSequence(regions[i + 2], regions[i + 3])
+                                            .toString());
+                }
+            }
+        }
+        return build(schema, values);
+    }
+
+    static <P extends Enum<P> & ParamSchema.Param> SchemaParams<P> of(
+            ParamSchema<P> schema, Map<String, List<String>> params) {
+        Object[] values = new Object[schema.getParams().size()];
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            String name = entry.getKey();
+            int index = schema.indexOf(name, 0, name.length(),
+                                       AuthParams.hash(name, 0, name.length()));
+            if (index >= 0) {
+                for (String value : entry.getValue()) {
+                    add(values, index, value);
+                }
+            }
+        }
+        return build(schema, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void add(Object[] values, int index, String value) {
+        Object previous = values[index];
+        if (previous == null) {
+            values[index] = value;
+        } else if (previous instanceof String) {
+            List<String> list = new ArrayList<>(2);
+            list.add((String) previous);
+            list.add(value);
+            values[index] = list;
+        } else {
+            ((List<String>) previous).add(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P extends Enum<P> & ParamSchema.Param> SchemaParams<P> build(
+            ParamSchema<P> schema, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof List) {
+                values[i] = Collections.unmodifiableList((List<String>) values[i]);
+            }
+        }
+        return new SchemaParams<>(schema, values);
+    }
+
+    public ParamSchema<P> getSchema() {
+        return schema;
+    }
+
+    public boolean contains(P param) {
+        return values[param.ordinal()] != null;
+    }
+
+    /**
+     * Returns the first value of the given param, as it is in the credentials.
+     *
+     * @param param  the param, not null
+     * @return the first value, or null if there is no such param
+     */
+    @SuppressWarnings("unchecked")
+    public String get(P param) {
+        Object value = values[param.ordinal()];
+        return value == null || value instanceof String
+               ? (String) value
+               : ((List<String>) value).get(0);
+    }
+
+    /**
+     * Returns the decoded first value of the given param, whose quoted string, if any, is unquoted
+     * as in {@link HttpAuthCredentials#getDecodedParams()}.
+     *
+     * @param param  the param, not null
+     * @return the decoded first value, or null if there is no such param
+     */
+    public String getDecoded(P param) {
+        String value = get(param);
+        return value == null ? null : QuotedStrings.unquote(value);
+    }
+
+    /**
+     * Returns the values of the given param, as they are in the credentials.
+     *
+     * @param param  the param, not null
+     * @return the values as an unmodifiable list, empty if there is no such param
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getValues(P param) {
+        Object value = values[param.ordinal()];
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        return value instanceof String
+               ? Collections.singletonList((String) value)
+               : (List<String>) value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SchemaParams{");
+        for (P param : schema.getParams()) {
+            if (contains(param)) {
+                if (builder.length() > "SchemaParams{".length()) {
+                    builder.append(", ");
+                }
+                builder.append(param).append('=').append(getValues(param));
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,159 @@
+package im.toss.http.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A map bounded in size, which backs {@link CachingHttpAuthParser} and
+ * {@link HttpAuthCredentialsInterner}.
+ *
+ * <p>The map is split into segments, each guarded by its own lock and evicting its least recently
+ * used entry when it is full. A key is assigned to a segment by its hash code, so that threads
+ * looking up different keys rarely wait for each other.
+ *
+ * @param <K>  the type of the keys
+ * @param <V>  the type of the values
+ */
+final class SegmentedLruMap<K, V> {
+
+    private final Segment<K, V>[] segments;
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a map.
+     *
+     * @param maximumSize  the maximum number of entries, positive
+     * @param concurrencyLevel  the expected number of threads accessing the map at the same time,
+     *                          which decides the number of segments, positive
+     */
+    @SuppressWarnings("unchecked")
+    SegmentedLruMap(int maximumSize, int concurrencyLevel) {
+        int segmentCount = Integer.highestOneBit(
+                Math.max(1, Math.min(concurrencyLevel, maximumSize)));
+        int maximumSegmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(maximumSegmentSize, evictionCount);
+        }
+    }
+
+    /**
+     * Returns the value of the given key, which becomes the most recently used entry.
+     *
+     * @param key  the key, not null
+     * @return the value, or null if there is none
+     */
+    V get(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    /**
+     * Maps the given key to the given value, evicting the least recently used entry of its
+     * segment if the segment is full.
+     *
+     * @param key  the key, not null
+     * @param value  the value, not null
+     */
+    void put(K key, V value) {
+        segmentFor(key).put(key, value);
+    }
+
+    /**
+     * Maps the given key to the given value, unless the key has a value already.
+     *
+     * @param key  the key, not null
+     * @param value  the value, not null
+     * @return the value the key had, or null if the given value was put
+     */
+    V putIfAbsent(K key, V value) {
+        return segmentFor(key).putIfAbsent(key, value);
+    }
+
+    /**
+     * Removes the given key if it has the given value, as an eviction, such as of an expired
+     * value.
+     *
+     * @param key  the key, not null
+     * @param value  the value, not null
+     */
+    void evict(K key, V value) {
+        segmentFor(key).evict(key, value);
+    }
+
+    void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of entries evicted because their segment was full, or by
+     * {@link #evict(Object, Object)}.
+     */
+    long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> {
+
+        private final LinkedHashMap<K, V> entries;
+        private final LongAdder evictionCount;
+
+        Segment(int maximumSize, LongAdder evictionCount) {
+            this.evictionCount = evictionCount;
+            // Ordered by access, so that the eldest entry is the least recently used one.
+            this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > maximumSize) {
+                        evictionCount.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(K key, V value) {
+            entries.put(key, value);
+        }
+
+        synchronized V putIfAbsent(K key, V value) {
+            return entries.putIfAbsent(key, value);
+        }
+
+        synchronized void evict(K key, V value) {
+            if (entries.remove(key, value)) {
+                evictionCount.increment();
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
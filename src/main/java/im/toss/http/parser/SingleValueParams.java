@@ -0,0 +1,78 @@
+package im.toss.http.parser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only view of params which maps each name to its first value.
+ */
+final class SingleValueParams extends AbstractMap<String, String> {
+
+    private final Map<String, List<String>> params;
+
+    SingleValueParams(Map<String, List<String>> params) {
+        this.params = params;
+    }
+
+    /**
+     * Returns the first value of the given name in the given params.
+     *
+     * @param params  the params, not null
+     * @param name  the name of the param
+     * @return the first value, or null if there is no such param
+     */
+    static String first(Map<String, List<String>> params, Object name) {
+        if (params instanceof AuthParams) {
+            return ((AuthParams) params).first(name);
+        }
+        List<String> values = params.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public int size() {
+        return params.size();
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return params.containsKey(name);
+    }
+
+    @Override
+    public String get(Object name) {
+        return first(params, name);
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+            @Override
+            public int size() {
+                return params.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                Iterator<Map.Entry<String, List<String>>> iterator = params.entrySet().iterator();
+                return new Iterator<Map.Entry<String, String>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        Map.Entry<String, List<String>> entry = iterator.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(),
+                                                          entry.getValue().get(0));
+                    }
+                };
+            }
+        };
+    }
+}
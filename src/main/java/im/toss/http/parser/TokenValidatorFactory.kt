@@ -1,5 +1,12 @@
 package im.toss.http.parser
 
+/**
+ * Provides a [TokenValidator] for each [TokenType].
+ *
+ * The built-in validators are stateless, so one instance per type is shared by every caller and
+ * nothing is constructed while parsing. A custom validator can be registered per type to replace
+ * the built-in one for every subsequent parse.
+ */
 class TokenValidatorFactory {
     enum class TokenType {
         RFC7230_TOKEN,
@@ -8,10 +15,58 @@ class TokenValidatorFactory {
     }
 
     fun create(type: TokenType): TokenValidator {
-        return when (type) {
-            TokenType.RFC7230_TOKEN -> Rfc7230TokenValidator()
-            TokenType.RFC7235_TOKEN68 -> Rfc7235Token68Validator()
-            TokenType.RFC7230_QUOTED_STRING -> Rfc7230QuotedStringValidator()
+        return validator(type)
+    }
+
+    companion object {
+        private val defaults: Array<TokenValidator> = Array(TokenType.values().size) {
+            when (TokenType.values()[it]) {
+                TokenType.RFC7230_TOKEN -> Rfc7230TokenValidator()
+                TokenType.RFC7235_TOKEN68 -> Rfc7235Token68Validator()
+                TokenType.RFC7230_QUOTED_STRING -> Rfc7230QuotedStringValidator()
+            }
+        }
+
+        // Copied on write, so that a lookup is a plain array access.
+        @Volatile
+        private var validators: Array<TokenValidator> = defaults.copyOf()
+
+        /**
+         * Returns the validator for the given type.
+         *
+         * @param type  the token type, not null
+         * @return the registered validator if any, otherwise the built-in one
+         */
+        @JvmStatic
+        fun validator(type: TokenType): TokenValidator {
+            return validators[type.ordinal]
+        }
+
+        /**
+         * Registers the validator to use for the given type instead of the built-in one.
+         *
+         * The validator is shared by every thread, so it must be thread-safe.
+         *
+         * @param type  the token type, not null
+         * @param validator  the validator, not null
+         */
+        @JvmStatic
+        @Synchronized
+        fun register(type: TokenType, validator: TokenValidator) {
+            val copy = validators.copyOf()
+            copy[type.ordinal] = validator
+            validators = copy
+        }
+
+        /**
+         * Restores the built-in validator for the given type.
+         *
+         * @param type  the token type, not null
+         */
+        @JvmStatic
+        @Synchronized
+        fun reset(type: TokenType) {
+            register(type, defaults[type.ordinal])
         }
     }
 }
@@ -0,0 +1,99 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class AuthParamsTest {
+
+    @Test
+    public void shouldLookUpNamesCaseInsensitively() {
+        Map<String, List<String>> params = params("realm=a, NONCE=b, Realm=c");
+
+        assertThat(params.get("REALM")).isEqualTo(asList("a", "c"));
+        assertThat(params.get("nonce")).isEqualTo(singletonList("b"));
+        assertThat(params.get("nonce")).isSameAs(params.get("Nonce"));
+        assertThat(params.get("opaque")).isNull();
+        assertThat(params.get(1)).isNull();
+        assertThat(params.containsKey("Nonce")).isTrue();
+        assertThat(params.containsKey("opaque")).isFalse();
+    }
+
+    @Test
+    public void shouldKeepInsertionOrder() {
+        Map<String, List<String>> params = params("z=1, a=2, Z=3, m=4");
+
+        assertThat(new ArrayList<>(params.keySet())).isEqualTo(asList("z", "a", "m"));
+        assertThat(params.toString()).isEqualTo("{z=[1, 3], a=[2], m=[4]}");
+    }
+
+    @Test
+    public void shouldLookUpManyNamesThroughTable() {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            list.append("k").append(i).append("=v").append(i).append(", ");
+        }
+        list.append("K99=w");
+
+        Map<String, List<String>> params = params(list.toString());
+
+        assertThat(params).hasSize(100);
+        for (int i = 0; i < 99; i++) {
+            assertThat(params.get("K" + i)).isEqualTo(singletonList("v" + i));
+        }
+        assertThat(params.get("k99")).isEqualTo(asList("v99", "w"));
+        assertThat(params.get("k100")).isNull();
+    }
+
+    @Test
+    public void shouldFoldCaseLikeCaseInsensitiveOrder() {
+        String[] names = {"i", "I", "ı", "İ", "ß", "SS", "é", "É"};
+        for (String a : names) {
+            for (String b : names) {
+                Map<String, List<String>> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                expected.put(a, singletonList("v"));
+
+                assertThat(params(a + "=v").containsKey(b))
+                        .as("%s and %s", a, b)
+                        .isEqualTo(expected.containsKey(b));
+            }
+        }
+    }
+
+    @Test
+    public void shouldBeEqualToOtherMaps() {
+        Map<String, List<String>> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        expected.put("a", singletonList("1"));
+        expected.put("b", asList("2", "3"));
+
+        Map<String, List<String>> params = params("a=1, b=2, b=3");
+
+        assertThat(params).isEqualTo(expected);
+        assertThat(expected).isEqualTo(params);
+        assertThat(params.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    public void shouldBeImmutable() {
+        Map<String, List<String>> params = params("a=1, a=2");
+
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> params.put("b", singletonList("3")));
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> params.get("a").add("3"));
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> params.entrySet().iterator().next().setValue(null));
+    }
+
+    private Map<String, List<String>> params(String list) {
+        return HttpAuthCredentials.parse("Custom " + list, false).getParams();
+    }
+}
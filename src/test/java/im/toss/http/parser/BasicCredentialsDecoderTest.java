@@ -0,0 +1,111 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class BasicCredentialsDecoderTest {
+
+    @Test
+    public void shouldDecodeUserIdAndPassword() {
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+
+        assertThat(decoder.decode("QWxhZGRpbjpvcGVuIHNlc2FtZQ==")).isTrue();
+        assertThat(decoder.getUserId().toString()).isEqualTo("Aladdin");
+        assertThat(decoder.getPassword().toString()).isEqualTo("open sesame");
+
+        // The password may have a colon, and either may be empty.
+        assertThat(decoder.decode("dTpwOjo=")).isTrue();
+        assertThat(decoder.getUserId().toString()).isEqualTo("u");
+        assertThat(decoder.getPassword().toString()).isEqualTo("p::");
+        assertThat(decoder.decode("Og==")).isTrue();
+        assertThat(decoder.getUserId().toString()).isEmpty();
+        assertThat(decoder.getPassword().toString()).isEmpty();
+    }
+
+    @Test
+    public void shouldDecodeWithoutPadding() {
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+
+        assertThat(decoder.decode("QWxhZGRpbjpvcGVuIHNlc2FtZQ")).isTrue();
+        assertThat(decoder.getPassword().toString()).isEqualTo("open sesame");
+    }
+
+    @Test
+    public void shouldDecodeCharset() {
+        // The example of Section 2.1 of RFC 7617
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+        assertThat(decoder.decode("dGVzdDoxMjPCow==")).isTrue();
+        assertThat(decoder.getPassword().toString()).isEqualTo("123\u00a3");
+
+        BasicCredentialsDecoder latin1 = new BasicCredentialsDecoder(ISO_8859_1);
+        assertThat(latin1.decode("dGVzdDoxMjOj")).isTrue();
+        assertThat(latin1.getPassword().toString()).isEqualTo("123\u00a3");
+
+        assertThat(decoder.decode("dGVzdDoxMjOj")).isFalse();
+    }
+
+    @Test
+    public void shouldGrowBuffers() {
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+        StringBuilder password = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            password.append("password");
+        }
+        String token68 = java.util.Base64.getEncoder()
+                                         .encodeToString(("user:" + password).getBytes(ISO_8859_1));
+
+        assertThat(decoder.decode(token68)).isTrue();
+        assertThat(decoder.getPassword().toString()).isEqualTo(password.toString());
+        assertThat(decoder.decode("YTpi")).isTrue();
+        assertThat(decoder.getPassword().toString()).isEqualTo("b");
+    }
+
+    @Test
+    public void shouldRejectMalformedToken68() {
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+
+        assertThat(decoder.decode("YWJj")).as("no colon").isFalse();
+        assertThat(decoder.decode("YTpiY")).as("truncated").isFalse();
+        assertThat(decoder.decode("YTpi=")).as("bad padding").isFalse();
+        assertThat(decoder.decode("YTp.")).as("not Base64").isFalse();
+        assertThat(decoder.decode("YTp\u00e9")).as("not Base64").isFalse();
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(decoder::getUserId);
+    }
+
+    @Test
+    public void shouldClear() {
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+        decoder.decode("QWxhZGRpbjpvcGVuIHNlc2FtZQ==");
+
+        decoder.clear();
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(decoder::getPassword);
+    }
+
+    @Test
+    public void shouldClearOnEveryFailedDecode() throws ReflectiveOperationException {
+        BasicCredentialsDecoder decoder = new BasicCredentialsDecoder();
+        Field bytes = BasicCredentialsDecoder.class.getDeclaredField("bytes");
+        Field chars = BasicCredentialsDecoder.class.getDeclaredField("chars");
+        bytes.setAccessible(true);
+        chars.setAccessible(true);
+
+        // Not Base64, truncated, no colon, and not UTF-8: a:\xFF
+        for (String token68 : new String[] {"YTp.", "YTpiY", "YWJj", "YTr/"}) {
+            assertThat(decoder.decode("QWxhZGRpbjpvcGVuIHNlc2FtZQ==")).isTrue();
+
+            assertThat(decoder.decode(token68)).as(token68).isFalse();
+
+            for (byte b : (byte[]) bytes.get(decoder)) {
+                assertThat(b).as(token68).isZero();
+            }
+            assertThat(new String((char[]) chars.get(decoder)).replace("\0", ""))
+                    .as(token68).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class CachingHttpAuthParserTest {
+
+    @Test
+    public void shouldReturnCachedCredentials() {
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder().build();
+
+        HttpAuthCredentials first = parser.parse("Bearer abc");
+        HttpAuthCredentials second = parser.parse("Bearer abc");
+
+        assertThat(first).isEqualTo(new HttpAuthCredentials("Bearer", "abc"));
+        assertThat(second).isSameAs(first);
+        assertThat(parser.hitCount()).isEqualTo(1);
+        assertThat(parser.missCount()).isEqualTo(1);
+        assertThat(parser.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedCredentials() {
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder()
+                                                            .maximumSize(2)
+                                                            .concurrencyLevel(1)
+                                                            .build();
+
+        HttpAuthCredentials a = parser.parse("Bearer a");
+        parser.parse("Bearer b");
+        parser.parse("Bearer a");
+        parser.parse("Bearer c");
+
+        assertThat(parser.evictionCount()).isEqualTo(1);
+        assertThat(parser.size()).isEqualTo(2);
+        assertThat(parser.parse("Bearer a")).isSameAs(a);
+        assertThat(parser.hitCount()).isEqualTo(2);
+        parser.parse("Bearer b");
+        assertThat(parser.missCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldExpireCredentials() {
+        AtomicLong now = new AtomicLong();
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder()
+                                                            .expireAfterWrite(Duration.ofSeconds(1))
+                                                            .ticker(now::get)
+                                                            .build();
+
+        HttpAuthCredentials first = parser.parse("Bearer abc");
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertThat(parser.parse("Bearer abc")).isSameAs(first);
+
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(parser.parse("Bearer abc")).isNotSameAs(first).isEqualTo(first);
+        assertThat(parser.evictionCount()).isEqualTo(1);
+        assertThat(parser.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotCacheFailures() {
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder().build();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                    .isThrownBy(() -> parser.parse("Custom k?"))
+                    .withMessage("Bad token: k?");
+        }
+        assertThat(parser.size()).isEqualTo(0);
+        assertThat(parser.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldParseLeniently() {
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder().strict(false).build();
+
+        assertThat(parser.parse("Custom k?").getToken()).isEqualTo("k?");
+        assertThat(parser.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBeNullSafe() {
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder().build();
+
+        assertThat(parser.parse(null)).isEqualTo(HttpAuthCredentials.none());
+        assertThat(parser.missCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void invalidateAll() {
+        CachingHttpAuthParser parser = CachingHttpAuthParser.builder().build();
+        parser.parse("Bearer a");
+        parser.parse("Bearer b");
+
+        parser.invalidateAll();
+
+        assertThat(parser.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectInvalidConfiguration() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(
+                () -> CachingHttpAuthParser.builder().maximumSize(0));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(
+                () -> CachingHttpAuthParser.builder().expireAfterWrite(Duration.ZERO));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(
+                () -> CachingHttpAuthParser.builder().concurrencyLevel(0));
+    }
+}
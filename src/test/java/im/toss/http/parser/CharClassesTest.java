@@ -0,0 +1,67 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static im.toss.http.parser.CharClasses.OBS_TEXT;
+import static im.toss.http.parser.CharClasses.QDTEXT;
+import static im.toss.http.parser.CharClasses.QUOTED_PAIR_TEXT;
+import static im.toss.http.parser.CharClasses.TCHAR;
+import static im.toss.http.parser.CharClasses.TOKEN_TEXT;
+import static im.toss.http.parser.CharClasses.VCHAR;
+import static im.toss.http.parser.CharClasses.WHITESPACE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CharClassesTest {
+
+    @Test
+    public void shouldMatchTheGrammar() {
+        assertSameAs(TCHAR, "[-A-Za-z0-9!#$%&'*+.^_`|~]");
+        assertSameAs(TOKEN_TEXT, "[-A-Za-z0-9!#$%&'*+.^_`|~ \"\\\\]");
+        assertSameAs(VCHAR, "[\\x21-\\x7E]");
+        assertSameAs(OBS_TEXT, "[\\x80-\\xFF]");
+        assertSameAs(QDTEXT, "[\\t \\x21\\x23-\\x5B\\x5D-\\x7E\\x80-\\xFF]");
+        assertSameAs(QUOTED_PAIR_TEXT, "[\\t \\x21-\\x7E\\x80-\\xFF]");
+        assertSameAs(WHITESPACE, "\\s");
+    }
+
+    @Test
+    public void indexOfNot() {
+        assertThat(CharClasses.indexOfNot("abc", 0, 3, TCHAR)).isEqualTo(3);
+        assertThat(CharClasses.indexOfNot("ab?c", 0, 4, TCHAR)).isEqualTo(2);
+        assertThat(CharClasses.indexOfNot("ab?c", 3, 4, TCHAR)).isEqualTo(4);
+        assertThat(CharClasses.indexOfNot("a가", 0, 2, TCHAR | OBS_TEXT)).isEqualTo(1);
+    }
+
+    @Test
+    public void indexOfNotShouldScanBytesAsScalar() {
+        Random random = new Random(7);
+        byte[] bytes = new byte[100];
+        for (int n = 0; n < 10_000; n++) {
+            for (int i = 0; i < bytes.length; i++) {
+                // Mostly tchar, so that the error is anywhere in the blocks
+                bytes[i] = random.nextInt(40) == 0 ? (byte) random.nextInt(256) : (byte) 'a';
+            }
+            int start = random.nextInt(bytes.length);
+            int end = start + random.nextInt(bytes.length - start + 1);
+            CharSequence input = Latin1CharSequence.of(bytes, 0, bytes.length);
+
+            assertThat(CharClasses.indexOfNot(input, start, end, TCHAR))
+                    .isEqualTo(CharClasses.scalarIndexOfNot(input, start, end, TCHAR));
+            CharSequence offset = Latin1CharSequence.of(bytes, start, end - start);
+            assertThat(CharClasses.indexOfNot(offset, 0, end - start, VCHAR))
+                    .isEqualTo(CharClasses.scalarIndexOfNot(offset, 0, end - start, VCHAR));
+        }
+    }
+
+    private void assertSameAs(int classes, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        for (char ch = 0; ch < Character.MAX_VALUE; ch++) {
+            assertThat(CharClasses.is(ch, classes))
+                    .as("U+%04X in %s", (int) ch, regex)
+                    .isEqualTo(pattern.matcher(String.valueOf(ch)).matches());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class HttpAuthBatchParserTest {
+
+    private static final List<String> CREDENTIALS = Arrays.asList(
+            "Basic YWxhZGRpbjpvcGVuc2VzYW1l",
+            "Custom a, b",
+            null,
+            "Custom k=\"v",
+            "Digest realm=\"r\", nonce=\"n\"",
+            "Custom k?=v");
+
+    @Test
+    public void shouldReturnResultPerCredentials() {
+        List<ParseResult> results = HttpAuthBatchParser.builder().build().parse(CREDENTIALS);
+
+        assertThat(results).hasSize(CREDENTIALS.size());
+        assertThat(results.get(0).getCredentials())
+                .isEqualTo(new HttpAuthCredentials("Basic", "YWxhZGRpbjpvcGVuc2VzYW1l"));
+        assertThat(results.get(1).getError().getKind()).isEqualTo(ParseError.Kind.MULTIPLE_TOKEN68);
+        assertThat(results.get(2).getCredentials()).isEqualTo(HttpAuthCredentials.none());
+        assertThat(results.get(3).getError().getKind())
+                .isEqualTo(ParseError.Kind.UNCLOSED_QUOTED_STRING);
+        assertThat(results.get(4).getCredentials().getFirstDecodedParam("realm")).isEqualTo("r");
+        assertThat(results.get(5).getError().getMessage()).isEqualTo("Bad parameter: k?=v");
+    }
+
+    @Test
+    public void shouldReturnWarningsInLenientMode() {
+        List<ParseResult> results = HttpAuthBatchParser.builder()
+                                                       .strict(false)
+                                                       .build()
+                                                       .parse(Stream.of("Custom a, b", "Basic a"));
+
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(0).getWarnings()).hasSize(1);
+        assertThat(results.get(1).getWarnings()).isEmpty();
+    }
+
+    @Test
+    public void shouldParseInParallelAsInSequence() {
+        List<String> credentials = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            credentials.add(CREDENTIALS.get(i % CREDENTIALS.size()) + (i % 7 == 0 ? i : ""));
+        }
+
+        List<ParseResult> sequential = HttpAuthBatchParser.builder().build().parse(credentials);
+        List<ParseResult> parallel = HttpAuthBatchParser.builder()
+                                                        .pool(ForkJoinPool.commonPool())
+                                                        .sliceSize(16)
+                                                        .build()
+                                                        .parse(credentials);
+
+        for (int i = 0; i < credentials.size(); i++) {
+            ParseResult expected = HttpAuthCredentials.tryParse(credentials.get(i), true);
+            assertThat(sequential.get(i).toString()).isEqualTo(expected.toString());
+            assertThat(parallel.get(i).toString()).isEqualTo(expected.toString());
+        }
+    }
+
+    @Test
+    public void shouldParseStreamABatchAtATime() {
+        List<ParseResult> results = new ArrayList<>();
+        List<String> read = new ArrayList<>();
+        Stream<String> credentials = Stream.iterate(0, i -> i + 1)
+                                           .limit(10)
+                                           .map(i -> CREDENTIALS.get(i % CREDENTIALS.size()))
+                                           .peek(read::add);
+
+        HttpAuthBatchParser.builder().sliceSize(4).build().parseEach(credentials, result -> {
+            // No more than a slice read ahead of the results
+            assertThat(read.size() - results.size()).isBetween(1, 4);
+            results.add(result);
+        });
+
+        assertThat(results).hasSize(10);
+        for (int i = 0; i < results.size(); i++) {
+            ParseResult expected = HttpAuthCredentials.tryParse(read.get(i), true);
+            assertThat(results.get(i).toString()).isEqualTo(expected.toString());
+        }
+    }
+
+    @Test
+    public void shouldRejectBadSliceSize() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(
+                () -> HttpAuthBatchParser.builder().sliceSize(0));
+    }
+}
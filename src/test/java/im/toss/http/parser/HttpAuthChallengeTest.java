@@ -0,0 +1,97 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class HttpAuthChallengeTest {
+
+    @Test
+    public void shouldParseMultipleChallenges() {
+        // The example of Section 4.1 of RFC 7235
+        List<HttpAuthChallenge> challenges = HttpAuthChallenge.parseAll(
+                "Newauth realm=\"apps\", type=1, title=\"Login to \\\"apps\\\"\","
+                + " Basic realm=\"simple\"");
+
+        assertThat(challenges).hasSize(2);
+        assertThat(challenges.get(0).getScheme()).isEqualTo("Newauth");
+        assertThat(challenges.get(0).getParams()).containsOnlyKeys("realm", "type", "title");
+        assertThat(challenges.get(0).getFirstParam("TYPE")).isEqualTo("1");
+        assertThat(challenges.get(0).getFirstDecodedParam("title")).isEqualTo("Login to \"apps\"");
+        assertThat(challenges.get(1).getScheme()).isEqualTo("Basic");
+        assertThat(challenges.get(1).getFirstDecodedParam("realm")).isEqualTo("simple");
+    }
+
+    @Test
+    public void shouldParseToken68AndBareSchemes() {
+        List<HttpAuthChallenge> challenges =
+                HttpAuthChallenge.parseAll("Negotiate, Negotiate abc=, Bearer, Digest k = v");
+
+        assertThat(challenges).extracting(HttpAuthChallenge::getScheme)
+                              .containsExactly("Negotiate", "Negotiate", "Bearer", "Digest");
+        assertThat(challenges.get(0).getToken()).isEmpty();
+        assertThat(challenges.get(1).getToken()).isEqualTo("abc=");
+        assertThat(challenges.get(2).getParams()).isEmpty();
+        assertThat(challenges.get(3).getFirstParam("k")).isEqualTo("v");
+    }
+
+    @Test
+    public void shouldParseCharSequence() {
+        String header = "Digest realm=\"a, b\", qop=\"auth\",Bearer realm=\"c\"";
+
+        List<HttpAuthChallenge> challenges =
+                HttpAuthChallenge.parseAll(new StringBuilder(header), true);
+
+        assertThat(challenges).isEqualTo(HttpAuthChallenge.parseAll(header));
+        assertThat(challenges.get(0).getFirstParam("realm")).isEqualTo("\"a, b\"");
+        assertThat(challenges.get(1).getFirstDecodedParam("realm")).isEqualTo("c");
+    }
+
+    @Test
+    public void shouldIgnoreEmptyElements() {
+        assertThat(HttpAuthChallenge.parseAll("")).isEmpty();
+        assertThat(HttpAuthChallenge.parseAll(" , ,Basic realm=x,, ")).hasSize(1);
+    }
+
+    @Test
+    public void shouldReportElementWithoutScheme() {
+        assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                .isThrownBy(() -> HttpAuthChallenge.parseAll("realm=x, Basic"))
+                .withMessage("Bad scheme: realm=x");
+
+        List<HttpAuthChallenge> challenges = HttpAuthChallenge.parseAll("realm=x, Basic", false);
+        assertThat(challenges).containsExactly(HttpAuthChallenge.parseAll("Basic").get(0));
+    }
+
+    @Test
+    public void shouldReportErrorsOfChallenges() {
+        assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                .isThrownBy(() -> HttpAuthChallenge.parseAll("Basic realm=x, k?=v"))
+                .withMessage("Bad parameter: k?=v");
+        assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                .isThrownBy(() -> HttpAuthChallenge.parseAll("Negotiate a/b c"))
+                .withMessage("Bad token: a/b c");
+        assertThatExceptionOfType(Rfc7230ListParserException.class)
+                .isThrownBy(() -> HttpAuthChallenge.parseAll("Basic realm=\"x"))
+                .withMessage("Unclosed quoted string");
+
+        assertThat(HttpAuthChallenge.parseAll("Basic realm=x, k?=v", false).get(0).getParams())
+                .containsOnlyKeys("realm", "k?");
+    }
+
+    @Test
+    public void decodedParamsShouldBeCaseInsensitiveForEveryInput() {
+        String header = "Digest Realm=\"a\\\"b\", NONCE=n";
+
+        for (CharSequence input : new CharSequence[] {header, new StringBuilder(header)}) {
+            HttpAuthChallenge challenge = HttpAuthChallenge.parseAll(input, true).get(0);
+
+            assertThat(challenge.getFirstDecodedParam("realm")).isEqualTo("a\"b");
+            assertThat(challenge.getDecodedParams().get("nonce")).containsExactly("n");
+            assertThat(challenge.getFirstParam("REALM")).isEqualTo("\"a\\\"b\"");
+        }
+    }
+}
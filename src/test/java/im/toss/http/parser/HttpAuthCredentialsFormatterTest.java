@@ -0,0 +1,152 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class HttpAuthCredentialsFormatterTest {
+
+    private final HttpAuthCredentialsFormatter formatter =
+            HttpAuthCredentialsFormatter.getDefault();
+
+    @Test
+    public void shouldFormatParsedCredentials() {
+        for (String input : new String[] {
+                "Bearer mF_9.B5f-4.1JqM",
+                "Basic dTpwOjo=",
+                "Custom abc, k1=v1, k2=\"v 2\", k1=\"v\\\"3\"",
+                "Digest username=\"Mufasa\", realm=\"http-auth@example.org\", nc=00000001",
+                "Negotiate"}) {
+            HttpAuthCredentials credentials = HttpAuthCredentials.parse(input);
+
+            String formatted = formatter.format(credentials);
+
+            assertThat(HttpAuthCredentials.parse(formatted)).isEqualTo(credentials);
+            assertThat(formatter.length(credentials)).isEqualTo(formatted.length());
+        }
+        assertThat(formatter.format(HttpAuthCredentials.parse("Custom   k1 = v1 ,k2=\"v2\"")))
+                .isEqualTo("Custom k1=v1, k2=\"v2\"");
+        assertThat(formatter.format(HttpAuthCredentials.none())).isEmpty();
+    }
+
+    @Test
+    public void shouldQuoteValuesWhichAreNotTokens() {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        params.put("z", singletonList("a b"));
+        params.put("a", Arrays.asList("say \"hi\"", "c:\\", ""));
+        params.put("m", singletonList("\"quoted\""));
+        HttpAuthCredentials credentials = new HttpAuthCredentials("Custom", "", params);
+
+        String formatted = formatter.format(credentials);
+
+        // In insertion order, with a quoted string kept as it is
+        assertThat(formatted).isEqualTo(
+                "Custom z=\"a b\", a=\"say \\\"hi\\\"\", a=\"c:\\\\\", a=\"\", m=\"quoted\"");
+        assertThat(formatter.length(credentials)).isEqualTo(formatted.length());
+        assertThat(HttpAuthCredentials.parse(formatted).getDecodedParams().get("a"))
+                .containsExactly("say \"hi\"", "c:\\", "");
+        // Only the decoded params round-trip, as the raw params keep the quotes
+        assertThat(HttpAuthCredentials.parse(formatted).getFirstParam("z")).isEqualTo("\"a b\"");
+    }
+
+    @Test
+    public void shouldFormatOnlyToken68WhichParsesBack() {
+        for (String token : new String[] {"abc", "abc=", "mF_9.B5f-4.1JqM"}) {
+            HttpAuthCredentials credentials = HttpAuthCredentials.fromSingleValueParams(
+                    "Custom", token, singletonMap("k", "v"));
+
+            assertThat(HttpAuthCredentials.parse(formatter.format(credentials)))
+                    .isEqualTo(credentials);
+        }
+        for (String token : new String[] {"a=b", "abc==", "a b", "a/b"}) {
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> formatter.format(new HttpAuthCredentials("Custom", token)))
+                    .withMessage("Bad token68: " + token);
+        }
+    }
+
+    @Test
+    public void shouldWriteBytes() {
+        HttpAuthCredentials credentials = HttpAuthCredentials.fromSingleValueParams(
+                "Custom", "abc", singletonMap("realm", "caf\u00e9"));
+        byte[] expected = "Custom abc, realm=\"caf\u00e9\"".getBytes(ISO_8859_1);
+
+        assertThat(formatter.toBytes(credentials)).isEqualTo(expected);
+
+        byte[] array = new byte[expected.length + 2];
+        assertThat(formatter.write(credentials, array, 1)).isEqualTo(expected.length);
+        assertThat(Arrays.copyOfRange(array, 1, expected.length + 1)).isEqualTo(expected);
+        assertThat(array[expected.length + 1]).isEqualTo((byte) 0);
+
+        for (ByteBuffer buffer : new ByteBuffer[] {
+                ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            buffer.position(3);
+            assertThat(formatter.write(credentials, buffer)).isEqualTo(expected.length);
+            assertThat(buffer.position()).isEqualTo(3 + expected.length);
+            byte[] written = new byte[expected.length];
+            buffer.position(3);
+            buffer.get(written);
+            assertThat(written).isEqualTo(expected);
+        }
+
+        assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> formatter.write(credentials, new byte[expected.length], 1));
+        ByteBuffer small = ByteBuffer.allocate(expected.length - 1);
+        assertThatExceptionOfType(BufferOverflowException.class)
+                .isThrownBy(() -> formatter.write(credentials, small));
+        assertThat(small.position()).isZero();
+    }
+
+    @Test
+    public void shouldCacheBytes() {
+        HttpAuthCredentials credentials = HttpAuthCredentials.parse("Bearer mF_9.B5f-4.1JqM");
+        HttpAuthCredentialsFormatter caching = HttpAuthCredentialsFormatter.builder()
+                                                                           .cacheBytes(true)
+                                                                           .build();
+
+        formatter.toBytes(credentials);
+        assertThat(credentials.formatted).isNull();
+
+        byte[] bytes = caching.toBytes(credentials);
+        byte[] cached = credentials.formatted;
+        assertThat(cached).isEqualTo(bytes).isNotSameAs(bytes);
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        assertThat(caching.write(credentials, buffer)).isEqualTo(bytes.length);
+        assertThat(credentials.formatted).isSameAs(cached);
+        assertThat(formatter.length(credentials)).isEqualTo(bytes.length);
+    }
+
+    @Test
+    public void shouldRejectWhatCannotBeFormatted() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> formatter.format(new HttpAuthCredentials("Bad scheme", "")));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> formatter.format(new HttpAuthCredentials("Bearer", "a,b")));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> formatter.format(HttpAuthCredentials.fromSingleValueParams(
+                        "Custom", "", singletonMap("k=", "v"))));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> formatter.format(HttpAuthCredentials.fromSingleValueParams(
+                        "Custom", "", singletonMap("k", "line\r\nbreak"))));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> formatter.format(HttpAuthCredentials.fromSingleValueParams(
+                        "Custom", "", singletonMap("k", "\u20ac"))));
+    }
+
+    private static Map<String, String> singletonMap(String key, String value) {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put(key, value);
+        return map;
+    }
+}
@@ -0,0 +1,83 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class HttpAuthCredentialsInternerTest {
+
+    @Test
+    public void shouldReturnCanonicalInstance() {
+        HttpAuthCredentialsInterner interner = HttpAuthCredentialsInterner.builder().build();
+
+        HttpAuthCredentials first = HttpAuthCredentials.parse("Custom abc, k=v");
+        HttpAuthCredentials second = HttpAuthCredentials.parse("Custom  abc ,k=v");
+
+        assertThat(interner.intern(first)).isSameAs(first);
+        assertThat(interner.intern(second)).isSameAs(first);
+        assertThat(interner.intern(new HttpAuthCredentials("Custom", "abc"))).isNotSameAs(first);
+        assertThat(interner.intern(null)).isNull();
+        assertThat(interner.hitCount()).isEqualTo(1);
+        assertThat(interner.missCount()).isEqualTo(2);
+        assertThat(interner.size()).isEqualTo(2);
+
+        interner.clear();
+        assertThat(interner.size()).isZero();
+        assertThat(interner.intern(second)).isSameAs(second);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedCredentials() {
+        HttpAuthCredentialsInterner interner = HttpAuthCredentialsInterner.builder()
+                                                                          .maximumSize(2)
+                                                                          .concurrencyLevel(1)
+                                                                          .build();
+
+        HttpAuthCredentials a = interner.intern(HttpAuthCredentials.parse("Bearer a"));
+        HttpAuthCredentials b = interner.intern(HttpAuthCredentials.parse("Bearer b"));
+        interner.intern(HttpAuthCredentials.parse("Bearer a"));
+        interner.intern(HttpAuthCredentials.parse("Bearer c"));
+
+        assertThat(interner.size()).isEqualTo(2);
+        assertThat(interner.intern(HttpAuthCredentials.parse("Bearer a"))).isSameAs(a);
+        assertThat(interner.intern(HttpAuthCredentials.parse("Bearer b"))).isNotSameAs(b);
+    }
+
+    @Test
+    public void shouldInternConcurrently() throws Exception {
+        HttpAuthCredentialsInterner interner = HttpAuthCredentialsInterner.builder().build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<HttpAuthCredentials>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(
+                        () -> interner.intern(HttpAuthCredentials.parse("Bearer abc"))));
+            }
+            HttpAuthCredentials canonical = futures.get(0).get();
+            for (Future<HttpAuthCredentials> future : futures) {
+                assertThat(future.get()).isSameAs(canonical);
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertThat(interner.missCount()).isEqualTo(1);
+        assertThat(interner.hitCount()).isEqualTo(99);
+    }
+
+    @Test
+    public void shouldRejectInvalidConfiguration() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> HttpAuthCredentialsInterner.builder().maximumSize(0));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> HttpAuthCredentialsInterner.builder().concurrencyLevel(0));
+    }
+}
@@ -9,6 +9,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import ch.qos.logback.classic.Logger;
@@ -17,6 +23,7 @@ import ch.qos.logback.core.Appender;
 
 import static ch.qos.logback.classic.Level.WARN;
 import static im.toss.http.parser.HttpAuthCredentials.parse;
+import static im.toss.http.parser.HttpAuthCredentials.parseBytes;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
@@ -109,8 +116,14 @@ public class HttpAuthCredentialsTest {
 
     @Test
     public void justWarnIfInNonStrictMode() {
-        assertThat(parse("Custom k?", false).getToken()).isEqualTo("k?");
-        assertThat(parse("Custom =v", false).getToken()).isEqualTo("=v");
+        // Not to be rate-limited by the warnings of the other tests
+        HttpAuthCredentials.setParseErrorListener(new LoggingParseErrorListener());
+        try {
+            assertThat(parse("Custom k?", false).getToken()).isEqualTo("k?");
+            assertThat(parse("Custom =v", false).getToken()).isEqualTo("=v");
+        } finally {
+            HttpAuthCredentials.setParseErrorListener(new LoggingParseErrorListener());
+        }
 
         verify(mockAppender, atLeastOnce()).doAppend(captorLoggingEvent.capture());
         assertThat(captorLoggingEvent.getAllValues()).filteredOn(e -> e.getLevel().equals(WARN))
@@ -228,6 +241,22 @@ public class HttpAuthCredentialsTest {
         HttpAuthCredentials b = new HttpAuthCredentials("Test", "foo");
 
         assertThat(a.hashCode()).isEqualTo(b.hashCode());
+        // Kept once computed, and compared before the params
+        HttpAuthCredentials c = parse("Test bar");
+        assertThat(c.hashCode()).isNotEqualTo(a.hashCode());
+        assertThat(a).isEqualTo(b).isNotEqualTo(c);
+    }
+
+    @Test
+    public void parsedCredentialsShouldEqualConstructedOnes() {
+        HttpAuthCredentials parsed = parse("Custom abc, k=v1, k=v2");
+        HttpAuthCredentials constructed =
+                new HttpAuthCredentials("Custom", "abc", singletonMap("k", asList("v1", "v2")));
+
+        assertThat(parsed).isEqualTo(constructed);
+        assertThat(constructed).isEqualTo(parsed);
+        assertThat(parsed.hashCode()).isEqualTo(constructed.hashCode());
+        assertThat(parsed.toString()).isEqualTo(constructed.toString());
     }
 
     @Test
@@ -266,4 +295,221 @@ public class HttpAuthCredentialsTest {
 
         assertThat(credentials.getSingleValueParams()).isEqualTo(singletonMap("k", "v1"));
     }
+
+    @Test
+    public void shouldReturnSameViews() {
+        HttpAuthCredentials credentials = parse("Custom k=v1, K=v2, x=y");
+
+        assertThat(credentials.getParams()).isSameAs(credentials.getParams());
+        assertThat(credentials.getSingleValueParams()).isSameAs(credentials.getSingleValueParams());
+        assertThat(credentials.getSingleValueParams().get("K")).isEqualTo("v1");
+        assertThat(credentials.getSingleValueParams()).isEqualTo(asMap("k", "v1", "x", "y"));
+    }
+
+    @Test
+    public void paramAccessors() {
+        HttpAuthCredentials credentials = parse("Custom k=v1, K=v2, x=y");
+
+        assertThat(credentials.getFirstParam("K")).isEqualTo("v1");
+        assertThat(credentials.getFirstParam("x")).isEqualTo("y");
+        assertThat(credentials.getFirstParam("z")).isNull();
+        assertThat(credentials.getParamValues("k")).isEqualTo(asList("v1", "v2"));
+        assertThat(credentials.getParamValues("z")).isEmpty();
+
+        HttpAuthCredentials constructed =
+                new HttpAuthCredentials("Custom", "", singletonMap("k", asList("v1", "v2")));
+        assertThat(constructed.getFirstParam("k")).isEqualTo("v1");
+        assertThat(constructed.getParamValues("k")).isEqualTo(asList("v1", "v2"));
+        assertThat(constructed.getParamValues("z")).isEmpty();
+    }
+
+    private Map<String, String> asMap(String... keyAndValues) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < keyAndValues.length; i += 2) {
+            map.put(keyAndValues[i], keyAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void shouldParseCharSequence() {
+        assertThat(parse(new StringBuilder("Custom abc, k=v"), true)).isEqualTo(
+                HttpAuthCredentials.fromSingleValueParams("Custom",
+                                                          "abc",
+                                                          singletonMap("k", "v")));
+        assertThat(parse((CharSequence) null, true)).isEqualTo(HttpAuthCredentials.none());
+        // Not ambiguous with the overloads taking bytes
+        assertThat(parse(null, true)).isEqualTo(HttpAuthCredentials.none());
+    }
+
+    @Test
+    public void shouldParseBytesAsIso88591() {
+        byte[] bytes = "xxCustom abc, k=\"\u00e9\"xx".getBytes(StandardCharsets.ISO_8859_1);
+        HttpAuthCredentials expected =
+                HttpAuthCredentials.fromSingleValueParams("Custom",
+                                                          "abc",
+                                                          singletonMap("k", "\"\u00e9\""));
+
+        assertThat(parseBytes(bytes, 2, bytes.length - 4, true)).isEqualTo(expected);
+
+        ByteBuffer heap = ByteBuffer.wrap(bytes, 2, bytes.length - 4).slice();
+        assertThat(parseBytes(heap, true)).isEqualTo(expected);
+        assertThat(heap.position()).isEqualTo(0);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).position(2).limit(bytes.length - 2);
+        assertThat(parseBytes(direct, true)).isEqualTo(expected);
+        assertThat(direct.position()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRejectBytesOutOfBounds() {
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(
+                () -> parseBytes(new byte[4], 2, 3, true));
+    }
+
+    @Test
+    public void tryParseShouldReportErrorWithoutThrowing() {
+        ParseResult result = HttpAuthCredentials.tryParse("Custom k1=v1, k?2=v2", true);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getCredentials()).isNull();
+        assertThat(result.getError().getKind()).isEqualTo(ParseError.Kind.BAD_PARAMETER);
+        assertThat(result.getError().getPosition()).isEqualTo(15);
+        assertThat(result.getError().getStart()).isEqualTo(14);
+        assertThat(result.getError().getEnd()).isEqualTo(20);
+        assertThat(result.getError().getMessage()).isEqualTo("Bad parameter: k?2=v2");
+        assertThat(result.getError().exception())
+                .isInstanceOf(HttpAuthCredentialParseException.class)
+                .hasMessage("Bad parameter: k?2=v2");
+    }
+
+    @Test
+    public void tryParseShouldReturnWarningsInLenientMode() {
+        ParseResult result = HttpAuthCredentials.tryParse("Custom a, b, k=v?", false);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getCredentials()).isEqualTo(parse("Custom a, k=v?", false));
+        assertThat(result.getWarnings()).extracting(ParseError::getKind)
+                                        .containsExactly(ParseError.Kind.MULTIPLE_TOKEN68,
+                                                         ParseError.Kind.BAD_PARAMETER);
+        assertThat(result.getWarnings().get(1).getPosition()).isEqualTo(16);
+    }
+
+    @Test
+    public void tryParseShouldFailForUnclosedQuotedString() {
+        ParseResult result = HttpAuthCredentials.tryParse("Custom k=\"v", false);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getError().getKind()).isEqualTo(ParseError.Kind.UNCLOSED_QUOTED_STRING);
+        assertThat(result.getError().getPosition()).isEqualTo(11);
+        assertThat(result.getError().exception()).isInstanceOf(Rfc7230ListParserException.class);
+        assertThat(HttpAuthCredentials.tryParse(null, true).getCredentials())
+                .isEqualTo(HttpAuthCredentials.none());
+    }
+
+    @Test
+    public void shouldReportWarningsToParseErrorListener() {
+        List<ParseError.Kind> kinds = new ArrayList<>();
+        HttpAuthCredentials.setParseErrorListener(error -> kinds.add(error.getKind()));
+        try {
+            parse("Custom a, b, k=v?", false);
+        } finally {
+            HttpAuthCredentials.setParseErrorListener(new LoggingParseErrorListener());
+        }
+
+        assertThat(kinds).containsExactly(ParseError.Kind.MULTIPLE_TOKEN68,
+                                          ParseError.Kind.BAD_PARAMETER);
+    }
+
+    @Test
+    public void shouldRecordParsesToParseMetrics() {
+        List<ParseResult> results = new ArrayList<>();
+        HttpAuthCredentials.setParseMetrics((credentials, result, nanos) -> results.add(result));
+        try {
+            parse("Basic abc");
+            assertThatExceptionOfType(HttpAuthCredentialParseException.class).isThrownBy(
+                    () -> parse("Custom k?", true));
+        } finally {
+            HttpAuthCredentials.setParseMetrics(ParseMetrics.NONE);
+        }
+
+        assertThat(results).extracting(ParseResult::isSuccess).containsExactly(true, false);
+        assertThat(results.get(1).getError().getKind()).isEqualTo(ParseError.Kind.BAD_TOKEN);
+    }
+
+    @Test
+    public void visitorShouldStopEarly() {
+        List<String> parts = new ArrayList<>();
+        parse("Custom k1=v1, K2=\"v2\", k3=v3", true, new HttpAuthCredentialsVisitor() {
+            @Override
+            public boolean onScheme(CharSequence scheme) {
+                parts.add(scheme.toString());
+                return true;
+            }
+
+            @Override
+            public boolean onParam(CharSequence name, CharSequence value) {
+                parts.add(name + "=" + value);
+                return !HttpAuthCredentialsVisitor.nameEquals(name, "k2");
+            }
+        });
+
+        assertThat(parts).containsExactly("Custom", "k1=v1", "K2=\"v2\"");
+    }
+
+    @Test
+    public void visitorShouldNotReceivePartsAfterErrorInStrictMode() {
+        List<String> names = new ArrayList<>();
+        HttpAuthCredentialsVisitor visitor = new HttpAuthCredentialsVisitor() {
+            @Override
+            public boolean onParam(CharSequence name, CharSequence value) {
+                names.add(name.toString());
+                return true;
+            }
+        };
+
+        assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                .isThrownBy(() -> parse("Custom a=1, b?=2, c=3", true, visitor))
+                .withMessage("Bad parameter: b?=2");
+        assertThat(names).containsExactly("a");
+
+        names.clear();
+        parse("Custom a=1, b?=2, c=3", false, visitor);
+        assertThat(names).containsExactly("a", "b?", "c");
+    }
+
+    @Test
+    public void decodedParams() {
+        HttpAuthCredentials credentials =
+                parse("Custom a=\"x \\\"y\\\"\", B=token, a=\"z\"");
+
+        assertThat(credentials.getParams().get("a")).containsExactly("\"x \\\"y\\\"\"", "\"z\"");
+        assertThat(credentials.getDecodedParams().get("A")).containsExactly("x \"y\"", "z");
+        assertThat(credentials.getFirstDecodedParam("b")).isEqualTo("token");
+        assertThat(credentials.getDecodedParams()).isSameAs(credentials.getDecodedParams());
+
+        HttpAuthCredentials constructed =
+                new HttpAuthCredentials("Custom", "", singletonMap("k", singletonList("\"v\"")));
+        assertThat(constructed.getFirstDecodedParam("k")).isEqualTo("v");
+    }
+
+    @Test
+    public void decodedParamsShouldBeCaseInsensitiveForEveryInput() {
+        String header = "Digest Realm=\"a\\\"b\", NONCE=n";
+        byte[] bytes = header.getBytes(StandardCharsets.ISO_8859_1);
+
+        for (HttpAuthCredentials credentials : new HttpAuthCredentials[] {
+                parse(header),
+                parse(new StringBuilder(header), true),
+                parseBytes(bytes, 0, bytes.length, true),
+                parseBytes(ByteBuffer.wrap(bytes), true),
+                new IncrementalHttpAuthParser(true).feed(bytes, 0, bytes.length)
+                                                   .finish()
+                                                   .getCredentials()}) {
+            assertThat(credentials.getFirstDecodedParam("realm")).isEqualTo("a\"b");
+            assertThat(credentials.getDecodedParams().get("nonce")).containsExactly("n");
+            assertThat(credentials.getFirstParam("REALM")).isEqualTo("\"a\\\"b\"");
+        }
+    }
 }
@@ -0,0 +1,128 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncrementalHttpAuthParserTest {
+
+    @Test
+    public void shouldParseBytesInChunks() {
+        IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(true);
+        byte[] bytes = "Digest realm=\"a, b\", nonce=\"\u00e9\"".getBytes(ISO_8859_1);
+
+        parser.feed(bytes, 0, 9);
+        parser.feed(ByteBuffer.wrap(bytes, 9, 10));
+        parser.feed(bytes, 19, bytes.length - 19);
+        ParseResult result = parser.finish();
+
+        assertThat(result.getCredentials().getScheme()).isEqualTo("Digest");
+        assertThat(result.getCredentials().getFirstParam("realm")).isEqualTo("\"a, b\"");
+        assertThat(result.getCredentials().getFirstParam("nonce")).isEqualTo("\"\u00e9\"");
+    }
+
+    @Test
+    public void shouldConsumeByteBuffer() {
+        IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(true);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        buffer.put("Bearer abc".getBytes(ISO_8859_1)).flip();
+
+        parser.feed(buffer);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(parser.finish().getCredentials().getToken()).isEqualTo("abc");
+    }
+
+    @Test
+    public void shouldKeepStateAcrossManyChunks() {
+        IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(true);
+        StringBuilder value = new StringBuilder("\"");
+        for (int i = 0; i < 10_000; i++) {
+            value.append(i % 10 == 0 ? "\\\", " : "x");
+        }
+        value.append('"');
+        String credentials = "Custom k=" + value + ", k2=v";
+
+        for (int i = 0; i < credentials.length(); i += 7) {
+            parser.feed(credentials.substring(i, Math.min(i + 7, credentials.length())));
+        }
+        ParseResult result = parser.finish();
+
+        assertThat(result.getCredentials()).isEqualTo(HttpAuthCredentials.parse(credentials));
+        assertThat(result.getCredentials().getFirstParam("k")).isEqualTo(value.toString());
+    }
+
+    @Test
+    public void shouldReportErrorsAtPositionsInWholeCredentials() {
+        IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(false);
+        StringBuilder credentials = new StringBuilder("Custom ");
+        for (int i = 0; i < 1000; i++) {
+            credentials.append("k").append(i).append("=v, ");
+        }
+        credentials.append("k?=v, ");
+        for (int i = 0; i < 1000; i++) {
+            credentials.append("x").append(i).append("=v, ");
+        }
+
+        for (int i = 0; i < credentials.length(); i += 5) {
+            parser.feed(credentials.subSequence(i, Math.min(i + 5, credentials.length())));
+        }
+        ParseResult result = parser.finish();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getWarnings()).hasSize(1);
+        assertThat(result.getWarnings().get(0).getPosition())
+                .isEqualTo(credentials.indexOf("k?") + 1);
+        assertThat(result.getWarnings().get(0).getMessage()).isEqualTo("Bad parameter: k?=v");
+    }
+
+    @Test
+    public void shouldReportErrorsOfPartsTheWindowHasMovedPast() {
+        StringBuilder params = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            params.append(", k").append(i).append("=v").append(i);
+        }
+        String badToken = "Custom a?b" + params;
+        String unclosed = "Custom abc" + params + ", k=\"open";
+
+        for (boolean strict : new boolean[] {true, false}) {
+            for (String credentials : new String[] {badToken, unclosed}) {
+                IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(strict);
+                for (int i = 0; i < credentials.length(); i += 7) {
+                    parser.feed(credentials.substring(i, Math.min(i + 7, credentials.length())));
+                }
+                ParseResult result = parser.finish();
+                ParseResult expected = HttpAuthCredentials.tryParse(credentials, strict);
+
+                ParseError error = result.isSuccess() ? result.getWarnings().get(0)
+                                                      : result.getError();
+                ParseError expectedError = expected.isSuccess() ? expected.getWarnings().get(0)
+                                                                : expected.getError();
+                assertThat(result.isSuccess()).isEqualTo(expected.isSuccess());
+                assertThat(error.getKind()).isEqualTo(expectedError.getKind());
+                assertThat(error.getPosition()).isEqualTo(expectedError.getPosition());
+                assertThat(error.getMessage()).isEqualTo(expectedError.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void shouldBeReusable() {
+        IncrementalHttpAuthParser parser = new IncrementalHttpAuthParser(true);
+
+        assertThat(parser.feed("Custom k=\"open").finish().getError().getKind())
+                .isEqualTo(ParseError.Kind.UNCLOSED_QUOTED_STRING);
+        assertThat(parser.feed("Basic ").feed("abc").finish().getCredentials())
+                .isEqualTo(new HttpAuthCredentials("Basic", "abc"));
+        assertThat(parser.finish().getCredentials()).isEqualTo(HttpAuthCredentials.none());
+
+        parser.feed("Custom k?=v");
+        parser.reset();
+
+        assertThat(parser.feed("Custom k=v").finish().getCredentials().getFirstParam("K"))
+                .isEqualTo("v");
+    }
+}
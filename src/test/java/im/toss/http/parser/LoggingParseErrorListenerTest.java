@@ -0,0 +1,91 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class LoggingParseErrorListenerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(HttpAuthCredentials.class);
+
+    @BeforeEach
+    public void setup() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    public void shouldLogUpToMaxMessagesPerInterval() {
+        LoggingParseErrorListener listener =
+                new LoggingParseErrorListener(Duration.ofSeconds(10), 2, now::get);
+
+        listener.onError(error("Custom k?"));
+        listener.onError(error("Custom k=v?"));
+        listener.onError(error("Custom k=v?"));
+        listener.onError(error("Custom a, b"));
+
+        assertThat(messages()).containsExactly("Bad token: k?", "Bad parameter: k=v?");
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        listener.onError(error("Custom k?"));
+
+        assertThat(messages()).containsExactly(
+                "Bad token: k?",
+                "Bad parameter: k=v?",
+                "2 parsing errors were not logged in the last PT10S:"
+                + " {BAD_PARAMETER=1, MULTIPLE_TOKEN68=1}",
+                "Bad token: k?");
+    }
+
+    @Test
+    public void shouldCountErrorsByKindEvenIfNotLogged() {
+        logger.setLevel(Level.ERROR);
+        LoggingParseErrorListener listener =
+                new LoggingParseErrorListener(Duration.ofSeconds(10), 2, now::get);
+
+        listener.onError(error("Custom k=v?"));
+        listener.onError(error("Custom k=v?"));
+        listener.onError(error("Custom k?"));
+
+        assertThat(messages()).isEmpty();
+        assertThat(listener.getCount(ParseError.Kind.BAD_PARAMETER)).isEqualTo(2);
+        assertThat(listener.getCount(ParseError.Kind.BAD_TOKEN)).isEqualTo(1);
+        assertThat(listener.getCounts()).containsEntry(ParseError.Kind.MULTIPLE_TOKEN68, 0L);
+    }
+
+    @Test
+    public void shouldRejectBadArguments() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(
+                () -> new LoggingParseErrorListener(Duration.ZERO, 1));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(
+                () -> new LoggingParseErrorListener(Duration.ofSeconds(1), -1));
+    }
+
+    private ParseError error(String credentials) {
+        return HttpAuthCredentials.tryParse(credentials, true).getError();
+    }
+
+    private Object[] messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toArray();
+    }
+}
@@ -0,0 +1,127 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class ParamSchemaTest {
+
+    private static final String DIGEST =
+            "Digest username=\"Mufasa\", realm=\"http-auth@example.org\", uri=\"/dir/index.html\","
+            + " algorithm=SHA-256, nonce=\"7ypf/xlj9XXwfDPEoM4URrv/xwf94BcCAzFZH4GiTo0v\","
+            + " nc=00000001, qop=auth, Custom=x";
+
+    enum MutualParam implements ParamSchema.Param {
+        SID("sid"),
+        DATA("data");
+
+        private final String paramName;
+
+        MutualParam(String paramName) {
+            this.paramName = paramName;
+        }
+
+        @Override
+        public String paramName() {
+            return paramName;
+        }
+    }
+
+    enum DuplicateParam implements ParamSchema.Param {
+        A, B;
+
+        @Override
+        public String paramName() {
+            return "same";
+        }
+    }
+
+    @Test
+    public void shouldGetParamsOfSchema() {
+        SchemaParams<DigestParam> params =
+                HttpAuthCredentials.parse(DIGEST).getParams(DigestParam.SCHEMA);
+
+        assertThat(params.get(DigestParam.USERNAME)).isEqualTo("\"Mufasa\"");
+        assertThat(params.getDecoded(DigestParam.NONCE))
+                .isEqualTo("7ypf/xlj9XXwfDPEoM4URrv/xwf94BcCAzFZH4GiTo0v");
+        assertThat(params.get(DigestParam.NC)).isEqualTo("00000001");
+        assertThat(params.contains(DigestParam.CNONCE)).isFalse();
+        assertThat(params.get(DigestParam.CNONCE)).isNull();
+        assertThat(params.getValues(DigestParam.CNONCE)).isEmpty();
+    }
+
+    @Test
+    public void shouldMatchNamesCaseInsensitively() {
+        SchemaParams<DigestParam> params =
+                HttpAuthCredentials.parse("digest REALM=a, Realm=b, qop=auth")
+                                   .getParams(DigestParam.SCHEMA);
+
+        assertThat(params.getValues(DigestParam.REALM)).containsExactly("a", "b");
+        assertThat(params.get(DigestParam.REALM)).isEqualTo("a");
+    }
+
+    @Test
+    public void shouldReturnNullForOtherScheme() {
+        assertThat(HttpAuthCredentials.parse("Basic abc").getParams(DigestParam.SCHEMA)).isNull();
+    }
+
+    @Test
+    public void shouldBeSameForEveryKindOfCredentials() {
+        HttpAuthCredentials lazy = HttpAuthCredentials.parse(DIGEST);
+        byte[] bytes = DIGEST.getBytes(StandardCharsets.ISO_8859_1);
+        HttpAuthCredentials eager = HttpAuthCredentials.parseBytes(bytes, 0, bytes.length, true);
+        Map<String, List<String>> map = new HashMap<>();
+        map.put("nonce", Collections.singletonList("n"));
+        map.put("NC", Arrays.asList("1", "2"));
+        HttpAuthCredentials constructed = new HttpAuthCredentials("Digest", "", map);
+
+        assertThat(eager.getParams(DigestParam.SCHEMA).toString())
+                .isEqualTo(lazy.getParams(DigestParam.SCHEMA).toString());
+        assertThat(constructed.getParams(DigestParam.SCHEMA).get(DigestParam.NONCE))
+                .isEqualTo("n");
+        assertThat(constructed.getParams(DigestParam.SCHEMA).getValues(DigestParam.NC))
+                .containsExactly("1", "2");
+    }
+
+    @Test
+    public void shouldLendNamesOfRegisteredSchema() {
+        byte[] bytes = DIGEST.getBytes(StandardCharsets.ISO_8859_1);
+        Map<String, List<String>> params =
+                HttpAuthCredentials.parseBytes(bytes, 0, bytes.length, true).getParams();
+
+        assertThat(params.keySet()).contains("nonce", "Custom");
+        assertThat(params.keySet().stream().filter("nonce"::equals).findFirst().get())
+                .isSameAs("nonce");
+    }
+
+    @Test
+    public void shouldRegisterSchema() {
+        ParamSchema<MutualParam> schema = ParamSchema.of("Mutual", MutualParam.class);
+        ParamSchema.register(schema);
+
+        assertThat(ParamSchema.forScheme("MUTUAL")).isSameAs(schema);
+        assertThat(ParamSchema.forScheme("Digest")).isSameAs(DigestParam.SCHEMA);
+        assertThat(ParamSchema.forScheme("Unknown")).isNull();
+        assertThat(schema.param("SID")).isEqualTo(MutualParam.SID);
+        assertThat(schema.param("sid2")).isNull();
+        assertThat(HttpAuthCredentials.parse("Mutual sid=1, data=\"x\"").getParams(schema)
+                                      .getDecoded(MutualParam.DATA)).isEqualTo("x");
+    }
+
+    @Test
+    public void shouldRejectInvalidSchema() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ParamSchema.of("Bad scheme", MutualParam.class));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ParamSchema.of("Duplicate", DuplicateParam.class))
+                .withMessage("Duplicate paramName: same");
+    }
+}
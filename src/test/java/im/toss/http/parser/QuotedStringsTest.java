@@ -0,0 +1,31 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QuotedStringsTest {
+
+    @Test
+    public void shouldRemoveQuotes() {
+        assertThat(QuotedStrings.unquote("\"abc\"")).isEqualTo("abc");
+        assertThat(QuotedStrings.unquote("\"\"")).isEqualTo("");
+        assertThat(QuotedStrings.unquote("\"a, b\"")).isEqualTo("a, b");
+    }
+
+    @Test
+    public void shouldUnescapeQuotedPairs() {
+        assertThat(QuotedStrings.unquote("\"a\\\"b\\\"\"")).isEqualTo("a\"b\"");
+        assertThat(QuotedStrings.unquote("\"\\\\\"")).isEqualTo("\\");
+        assertThat(QuotedStrings.unquote("\"\\a\\b\"")).isEqualTo("ab");
+    }
+
+    @Test
+    public void shouldLeaveOtherValuesAsTheyAre() {
+        assertThat(QuotedStrings.unquote("abc")).isEqualTo("abc");
+        assertThat(QuotedStrings.unquote("\"")).isEqualTo("\"");
+        assertThat(QuotedStrings.unquote("\"abc")).isEqualTo("\"abc");
+        assertThat(QuotedStrings.unquote("\"a\"b\"")).isEqualTo("\"a\"b\"");
+        assertThat(QuotedStrings.unquote("\"a\\\"")).isEqualTo("\"a\\\"");
+    }
+}
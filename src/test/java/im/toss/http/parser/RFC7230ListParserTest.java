@@ -45,4 +45,42 @@ public class RFC7230ListParserTest {
                 .isThrownBy(() -> Rfc7230ListParser.parse("a, \"b\\"))
                 .withMessage("Unclosed quoted pair");
     }
+
+    @Test
+    public void shouldSplitIntoOffsets() {
+        Rfc7230ListParser parser = new Rfc7230ListParser();
+        String input = " a ,, b=\"c, d\"\t, ";
+
+        assertThat(parser.split(input)).isEqualTo(2);
+        assertThat(parser.start(0)).isEqualTo(1);
+        assertThat(parser.end(0)).isEqualTo(2);
+        assertThat(parser.start(1)).isEqualTo(input.indexOf('b'));
+        assertThat(parser.end(1)).isEqualTo(input.indexOf('\t'));
+        assertThat(parser.value(1)).isEqualTo("b=\"c, d\"");
+        assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> parser.start(2));
+    }
+
+    @Test
+    public void shouldBeReusable() {
+        Rfc7230ListParser parser = new Rfc7230ListParser();
+        StringBuilder many = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            many.append(i).append(", ");
+        }
+
+        assertThat(parser.split(many)).isEqualTo(100);
+        assertThat(parser.values()).hasSize(100).startsWith("0", "1");
+        assertThat(parser.split("a, b")).isEqualTo(2);
+        assertThat(parser.values()).isEqualTo(asList("a", "b"));
+        assertThatExceptionOfType(Rfc7230ListParserException.class)
+                .isThrownBy(() -> parser.split("\"a"));
+        assertThat(parser.split("c")).isEqualTo(1);
+        assertThat(parser.values()).isEqualTo(asList("c"));
+
+        parser.reset();
+
+        assertThat(parser.size()).isZero();
+        assertThat(parser.values()).isEmpty();
+    }
 }
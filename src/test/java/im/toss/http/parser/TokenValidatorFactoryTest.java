@@ -0,0 +1,53 @@
+package im.toss.http.parser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7230_TOKEN;
+import static im.toss.http.parser.TokenValidatorFactory.TokenType.RFC7235_TOKEN68;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+
+public class TokenValidatorFactoryTest {
+
+    @AfterEach
+    public void tearDown() {
+        TokenValidatorFactory.reset(RFC7230_TOKEN);
+        TokenValidatorFactory.reset(RFC7235_TOKEN68);
+    }
+
+    @Test
+    public void shouldShareValidators() {
+        assertThat(new TokenValidatorFactory().create(RFC7230_TOKEN))
+                .isSameAs(new TokenValidatorFactory().create(RFC7230_TOKEN))
+                .isSameAs(TokenValidatorFactory.validator(RFC7230_TOKEN));
+    }
+
+    @Test
+    public void shouldUseRegisteredValidator() {
+        TokenValidatorFactory.register(RFC7235_TOKEN68, token68 -> {
+            if (token68.length() > 3) {
+                throw new TokenValidationException("Too long");
+            }
+        });
+
+        assertThat(HttpAuthCredentials.parse("Custom k/v").getToken()).isEqualTo("k/v");
+        assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                .isThrownBy(() -> HttpAuthCredentials.parse("Custom abcd"))
+                .withMessage("Bad token: abcd");
+    }
+
+    @Test
+    public void shouldRestoreBuiltInValidator() {
+        TokenValidator builtIn = TokenValidatorFactory.validator(RFC7230_TOKEN);
+        TokenValidatorFactory.register(RFC7230_TOKEN, token -> { });
+        assertThat(HttpAuthCredentials.parse("Custom k?=v").getParams()).containsKey("k?");
+
+        TokenValidatorFactory.reset(RFC7230_TOKEN);
+
+        assertThat(TokenValidatorFactory.validator(RFC7230_TOKEN)).isSameAs(builtIn);
+        assertThatExceptionOfType(HttpAuthCredentialParseException.class)
+                .isThrownBy(() -> HttpAuthCredentials.parse("Custom k?=v"))
+                .withMessage("Bad parameter: k?=v");
+    }
+}